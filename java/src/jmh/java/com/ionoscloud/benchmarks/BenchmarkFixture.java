@@ -0,0 +1,26 @@
+package com.ionoscloud.benchmarks;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.SdkService;
+
+/* a SdkService that dispatches to StubApi only */
+final class BenchmarkFixture {
+
+    static final String LIST_OPERATION = "stubServersGet";
+    static final String CREATE_OPERATION = "stubServersPost";
+
+    static final String CREATE_INPUT = "{\"operation\": \"" + CREATE_OPERATION + "\", \"params\": ["
+            + "{\"name\": \"datacenterId\", \"value\": \"7a3b8c3e-0000-4000-8000-000000000000\"},"
+            + "{\"name\": \"server\", \"value\": {\"properties\": {\"name\": \"benchmark\", \"cores\": 4,"
+            + " \"ram\": 4096, \"availabilityZone\": \"AUTO\", \"cpuFamily\": \"INTEL_SKYLAKE\","
+            + " \"vmState\": \"RUNNING\", \"labels\": [\"a\", \"b\", \"c\"]}}},"
+            + "{\"name\": \"depth\", \"value\": 1}]}";
+
+    private BenchmarkFixture() {
+    }
+
+    static SdkService sdkService(ApiClient apiClient) {
+        return new SdkService(apiClient, OperationIndex.of(OperationIndex.describe(StubApi.class)));
+    }
+}
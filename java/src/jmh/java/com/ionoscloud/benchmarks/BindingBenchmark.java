@@ -0,0 +1,58 @@
+package com.ionoscloud.benchmarks;
+
+import com.google.gson.Gson;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Param;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.ParameterBinder;
+import com.ionoscloud.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/* binding input params to sdk arguments, compared to the former gson string round trip per param */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindingBenchmark {
+
+    private final Gson gson = new Gson();
+
+    private Method method;
+    private List<String> parameterNames;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setUp() throws Exception {
+        OperationIndex operationIndex = OperationIndex.of(OperationIndex.describe(StubApi.class));
+        Operation operation = operationIndex.find(BenchmarkFixture.CREATE_OPERATION);
+        method = operationIndex.getMethod(operation);
+        parameterNames = operation.getParameterNames();
+
+        params = new HashMap<>();
+        for (Param param : JsonUtils.MAPPER.readValue(BenchmarkFixture.CREATE_INPUT, Input.class).getParams()) {
+            params.put(param.getName(), param.getValue());
+        }
+    }
+
+    @Benchmark
+    public Object[] bind() {
+        return ParameterBinder.of(method, parameterNames).bind(params);
+    }
+
+    @Benchmark
+    public Object[] gsonRoundTrip() {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object value = params.get(parameterNames.get(i));
+            args[i] = value instanceof Map || value instanceof List ? gson.fromJson(gson.toJson(value), types[i]) : value;
+        }
+        return args;
+    }
+}
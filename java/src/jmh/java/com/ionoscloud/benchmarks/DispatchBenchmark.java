@@ -0,0 +1,70 @@
+package com.ionoscloud.benchmarks;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.OperationInvoker;
+import com.ionoscloud.services.SdkService;
+import com.ionoscloud.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Finding and calling an operation: index lookup, the cached method handle invoker compared to
+ * constructing the api and calling Method.invoke per call, and a whole SdkService.run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DispatchBenchmark {
+
+    private ApiClient apiClient;
+    private SdkService sdkService;
+    private Input input;
+    private Method method;
+    private OperationInvoker invoker;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws Throwable {
+        /* logging every call would take more time than the calls themselves, as in Main.runLoad */
+        Logger.getLogger("sdk-service").setLevel(Level.WARNING);
+        StubApi.listSize = 1;
+        apiClient = new ApiClient();
+        sdkService = BenchmarkFixture.sdkService(apiClient);
+        input = JsonUtils.MAPPER.readValue(BenchmarkFixture.CREATE_INPUT, Input.class);
+
+        OperationIndex operationIndex = sdkService.getOperationIndex();
+        Operation operation = operationIndex.find(BenchmarkFixture.LIST_OPERATION);
+        method = operationIndex.getMethod(operation);
+        invoker = sdkService.getInvoker(apiClient, StubApi.class, method);
+        args = new Object[] {"datacenter", false, 1, 0, 1};
+    }
+
+    @Benchmark
+    public Method lookup() throws ReflectiveOperationException {
+        OperationIndex operationIndex = sdkService.getOperationIndex();
+        return operationIndex.getMethod(operationIndex.find(BenchmarkFixture.CREATE_OPERATION));
+    }
+
+    @Benchmark
+    public Object invokeCached() throws Throwable {
+        return invoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object invokeReflective() throws Throwable {
+        return method.invoke(StubApi.class.getDeclaredConstructor(ApiClient.class).newInstance(apiClient), args);
+    }
+
+    @Benchmark
+    public Response run() throws Throwable {
+        return sdkService.run(input);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ionoscloud.benchmarks;
+
+import com.ionoscloud.models.Input;
+import com.ionoscloud.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/* reading and validating an Input */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InputBenchmark {
+
+    private byte[] json;
+    private Input input;
+    private InputStream stdin;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = BenchmarkFixture.CREATE_INPUT.getBytes(StandardCharsets.UTF_8);
+        input = JsonUtils.MAPPER.readValue(json, Input.class);
+        stdin = System.in;
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setIn(stdin);
+    }
+
+    @Benchmark
+    public Input get() throws IOException {
+        System.setIn(new ByteArrayInputStream(json));
+        return Input.get();
+    }
+
+    @Benchmark
+    public Input validate() {
+        input.validate();
+        return input;
+    }
+}
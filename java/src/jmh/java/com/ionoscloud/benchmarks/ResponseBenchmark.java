@@ -0,0 +1,71 @@
+package com.ionoscloud.benchmarks;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.OperationInvoker;
+import com.ionoscloud.services.SdkService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/* converting an sdk result into a Response and writing it, for small and large list results */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBenchmark {
+
+    @Param({"10", "1000"})
+    public int listSize;
+
+    private SdkService sdkService;
+    private OperationInvoker invoker;
+    private Object[] args;
+    private Response response;
+
+    private final OutputStream discard = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Setup
+    public void setUp() throws Throwable {
+        /* logging every call would take more time than the calls themselves, as in Main.runLoad */
+        Logger.getLogger("sdk-service").setLevel(Level.WARNING);
+        StubApi.listSize = listSize;
+        ApiClient apiClient = new ApiClient();
+        sdkService = BenchmarkFixture.sdkService(apiClient);
+
+        OperationIndex operationIndex = sdkService.getOperationIndex();
+        Operation operation = operationIndex.find(BenchmarkFixture.LIST_OPERATION);
+        invoker = sdkService.getInvoker(apiClient, StubApi.class, operationIndex.getMethod(operation));
+        args = new Object[] {"datacenter", false, 1, 0, listSize};
+        response = sdkService.performRequest(invoker, args);
+    }
+
+    @Benchmark
+    public Response performRequest() throws Throwable {
+        return sdkService.performRequest(invoker, args);
+    }
+
+    @Benchmark
+    public String responseToString() {
+        return response.toString();
+    }
+
+    @Benchmark
+    public Response writeTo() throws IOException {
+        response.writeTo(discard);
+        return response;
+    }
+}
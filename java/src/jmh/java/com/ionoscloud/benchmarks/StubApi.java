@@ -0,0 +1,83 @@
+package com.ionoscloud.benchmarks;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+
+import java.util.*;
+
+/*
+ * Stand-in for a generated sdk api class: same constructor and *WithHttpInfo shape, but the data is
+ * built in memory, so benchmarks measure the driver and not the network.
+ */
+public class StubApi {
+
+    /* number of items returned by the list operation, see stubServersGetWithHttpInfo */
+    public static volatile int listSize = 100;
+
+    private static final Map<String, List<String>> HEADERS = Collections.singletonMap(
+            "Content-Type", Collections.singletonList("application/json"));
+
+    private final ApiClient apiClient;
+
+    public StubApi(ApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    public ApiResponse<Servers> stubServersGetWithHttpInfo(String datacenterId, Boolean pretty, Integer depth,
+                                                           Integer offset, Integer limit) throws ApiException {
+        Servers servers = new Servers();
+        servers.id = datacenterId + "/servers";
+        servers.items = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            servers.items.add(server("server-" + i));
+        }
+        return new ApiResponse<>(200, HEADERS, servers);
+    }
+
+    public ApiResponse<Server> stubServersPostWithHttpInfo(String datacenterId, Server server, Boolean pretty,
+                                                           Integer depth) throws ApiException {
+        server.id = UUID.randomUUID().toString();
+        return new ApiResponse<>(202, HEADERS, server);
+    }
+
+    public static Server server(String name) {
+        Server server = new Server();
+        server.id = UUID.nameUUIDFromBytes(name.getBytes()).toString();
+        server.type = "server";
+        server.properties = new ServerProperties();
+        server.properties.name = name;
+        server.properties.cores = 4;
+        server.properties.ram = 4096;
+        server.properties.availabilityZone = "AUTO";
+        server.properties.cpuFamily = "INTEL_SKYLAKE";
+        server.properties.vmState = VmState.RUNNING;
+        server.properties.labels = Arrays.asList("benchmark", name);
+        return server;
+    }
+
+    public enum VmState {
+        RUNNING, SHUTOFF
+    }
+
+    public static class ServerProperties {
+        String name;
+        Integer cores;
+        Integer ram;
+        String availabilityZone;
+        String cpuFamily;
+        VmState vmState;
+        List<String> labels;
+    }
+
+    public static class Server {
+        String id;
+        String type;
+        ServerProperties properties;
+    }
+
+    public static class Servers {
+        String id;
+        List<Server> items;
+    }
+}
@@ -1,63 +1,309 @@
 package com.ionoscloud;
 
-import com.ionoscloud.models.Error;
-import com.ionoscloud.models.HttpResponse;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.ionoscloud.models.Input;
+import com.ionoscloud.models.LoadReport;
 import com.ionoscloud.models.Response;
+import com.ionoscloud.services.DriverServer;
+import com.ionoscloud.services.LoadGenerator;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.PhaseTimer;
+import com.ionoscloud.services.ProductRegistry;
 import com.ionoscloud.services.SdkService;
+import com.ionoscloud.services.StubApiServer;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 public class Main {
 
+    private static final String DAEMON_ARG = "--daemon";
+    private static final String WARMUP_ARG = "--warmup";
+    private static final String HTTP_ARG = "--http";
+    private static final String THREADS_ARG = "--threads";
+    private static final String LOAD_ARG = "--load";
+    private static final String RATE_ARG = "--rate";
+    private static final String CONCURRENCY_ARG = "--concurrency";
+    private static final String DURATION_ARG = "--duration";
+    private static final String STUB_SERVER_ARG = "--stub-server";
+    private static final String STUB_LATENCY_ARG = "--stub-latency";
+    private static final String STUB_ITEMS_ARG = "--stub-items";
+    private static final String STUB_429_RATE_ARG = "--stub-429-rate";
+    private static final String STUB_5XX_RATE_ARG = "--stub-5xx-rate";
+    private static final int DEFAULT_HTTP_THREADS = 16;
+    private static final int DEFAULT_LOAD_CONCURRENCY = 8;
+    private static final int DEFAULT_LOAD_DURATION_SECONDS = 10;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
-    public static void main(String[] args) {
+    /*
+     * Responses are written to stdout through a large buffer, instead of through System.out, which
+     * flushes its small buffer on every write.
+     */
+    private static final OutputStream OUT =
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+
+    /* service of this driver when it is loaded as a product of another driver, see ProductDriver */
+    private static volatile SdkService embeddedService;
+
+    public static void main(String[] args) throws IOException {
+
+        /* the stub api needs no credentials, only the operation index */
+        String stubPort = getArgValue(args, STUB_SERVER_ARG);
+        if (stubPort != null) {
+            runStubServer(Integer.parseInt(stubPort), args);
+            return;
+        }
 
         /* Initialize ApiClient */
         SdkService sdkService = new SdkService();
+        sdkService.useProducts(ProductRegistry.fromEnv());
+
+        /* training run for the class data sharing archive, see the cdsArchive task in build.gradle */
+        if (Arrays.asList(args).contains(WARMUP_ARG)) {
+            sdkService.warmUp();
+            return;
+        }
+
+        if (Arrays.asList(args).contains(DAEMON_ARG)) {
+            runDaemon(sdkService);
+            return;
+        }
+
+        if (Arrays.asList(args).contains(LOAD_ARG)) {
+            runLoad(sdkService, args);
+            return;
+        }
+
+        String port = getArgValue(args, HTTP_ARG);
+        if (port != null) {
+            String threads = getArgValue(args, THREADS_ARG);
+            DriverServer server = new DriverServer(
+                    sdkService,
+                    Integer.parseInt(port),
+                    threads == null ? DEFAULT_HTTP_THREADS : Integer.parseInt(threads)
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            server.start();
+            return;
+        }
 
         try {
 
             /* read and validate input */
+            PhaseTimer timer = new PhaseTimer();
             Input input = Input.get();
+            timer.mark(PhaseTimer.READ);
             input.validate();
+            timer.mark(PhaseTimer.VALIDATE);
 
-            /* run sdk method and print result */
-            System.out.println(sdkService.run(input).toString());
+            /* run sdk method and print result, after the pages of a paginated list */
+            Response response = sdkService.run(input, timer, pageWriter(input.getId()));
+            response.setId(input.getId());
+            writeResponse(response);
 
         } catch (Throwable e) {
+            writeResponse(SdkService.errorResponse(e));
+        }
 
-            Error.ErrorBuilder errorBuilder =
-                    Error
-                    .builder()
-                    .message(e.getMessage())
-                    .stackTrace(Arrays.stream(e.getStackTrace()).map(
-                            element -> element.getClassName() + ":" + element.getMethodName() + "():" + element.getLineNumber()
-                    ).collect(Collectors.toList()));
-
-            if (e instanceof ApiException) {
-                ApiException apiEx = (ApiException) e;
-                errorBuilder.apiResponse(
-                        HttpResponse
-                                .builder()
-                                .statusCode(apiEx.getCode())
-                                .headers(apiEx.getResponseHeaders())
-                                .body(apiEx.getResponseBody())
-                                .build()
-                );
+
+    }
+
+    /*
+     * Reads newline-delimited inputs from stdin until EOF and writes one response line per input,
+     * reusing the same SdkService (and thus ApiClient) for every call. Each response carries the
+     * input's 'id', or the input's line number if no id was given, so callers can correlate them.
+     * The pages of a paginated list are written as lines of their own, ahead of the input's summary
+     * response. The time spent writing each response is added to the service's latency histograms.
+     */
+    private static void runDaemon(SdkService sdkService) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            String id = String.valueOf(lineNumber);
+            String operation = null;
+            PhaseTimer timer = new PhaseTimer();
+            Response response;
+
+            try {
+                JsonNode node = Input.readTree(line);
+                if (node.hasNonNull("id")) {
+                    id = node.get("id").asText();
+                }
+
+                Input input = Input.fromTree(node);
+                timer.mark(PhaseTimer.READ);
+                input.validate();
+                timer.mark(PhaseTimer.VALIDATE);
+
+                operation = input.getOperation();
+                response = sdkService.run(input, timer, pageWriter(id));
+            } catch (Throwable e) {
+                response = SdkService.errorResponse(e);
             }
-            System.out.println(
-                    Response
-                            .builder()
-                            .error(errorBuilder.build())
-                            .build()
-                            .toString()
+
+            response.setId(id);
+            long writeStart = System.nanoTime();
+            writeResponse(response);
+            if (operation != null) {
+                sdkService.getLatencyHistograms().record(operation, PhaseTimer.WRITE, System.nanoTime() - writeStart);
+            }
+        }
+    }
+
+    /*
+     * Runs the input's operation repeatedly, --concurrency workers for --duration seconds, optionally paced
+     * to --rate requests per second, and writes a LoadReport as the result.
+     */
+    private static void runLoad(SdkService sdkService, String[] args) throws IOException {
+        String rate = getArgValue(args, RATE_ARG);
+        String concurrency = getArgValue(args, CONCURRENCY_ARG);
+        String duration = getArgValue(args, DURATION_ARG);
+
+        /* logging every call would take more time than the calls themselves */
+        Logger.getLogger("sdk-service").setLevel(Level.WARNING);
+
+        try {
+            Input input = Input.get();
+            input.validate();
+
+            LoadReport report = new LoadGenerator(sdkService).run(
+                    input,
+                    rate == null ? 0 : Double.parseDouble(rate),
+                    concurrency == null ? DEFAULT_LOAD_CONCURRENCY : Integer.parseInt(concurrency),
+                    TimeUnit.SECONDS.toMillis(duration == null ? DEFAULT_LOAD_DURATION_SECONDS : Long.parseLong(duration))
             );
+
+            writeResponse(Response.builder().id(input.getId()).result(report).build());
+        } catch (Throwable e) {
+            writeResponse(SdkService.errorResponse(e));
+        }
+    }
+
+    /*
+     * Bridge for a driver that loaded this one as a product (see ProductDriver): runs an input json and
+     * returns a reader of the response json, handing the pages of a paginated list to the page sink as
+     * readers too (see Response.toTransferJson). The service is created on the first call and kept for the
+     * following ones.
+     */
+    public static Reader execute(String input, Consumer<Reader> pageSink) {
+        try {
+            Input parsed = Input.fromTree(Input.readTree(input));
+            parsed.validate();
+
+            Consumer<Response> pages = pageSink == null ? null : page -> {
+                try (Reader json = page.toTransferJson()) {
+                    pageSink.accept(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    page.release();
+                }
+            };
+            Response response = embeddedService().run(parsed, new PhaseTimer(), pages);
+            response.setId(parsed.getId());
+            try {
+                return response.toTransferJson();
+            } finally {
+                response.release();
+            }
+        } catch (Throwable e) {
+            return new StringReader(SdkService.errorResponse(e).toString());
+        }
+    }
+
+    /* bridge for the warm up of a driver that loaded this one as a product */
+    public static void warmUp() {
+        embeddedService().warmUp();
+    }
+
+    private static SdkService embeddedService() {
+        SdkService service = embeddedService;
+        if (service == null) {
+            synchronized (Main.class) {
+                service = embeddedService;
+                if (service == null) {
+                    service = new SdkService();
+                    embeddedService = service;
+                }
+            }
         }
+        return service;
+    }
 
+    /*
+     * Serves the operations of the operation index on a local stub api, e.g. for load tests with
+     * IONOS_API_URL=http://localhost:<port>: --stub-latency (milliseconds per response), --stub-items
+     * (items per list) and the --stub-429-rate and --stub-5xx-rate of failed responses (0 to 1).
+     */
+    private static void runStubServer(int port, String[] args) throws IOException {
+        String latency = getArgValue(args, STUB_LATENCY_ARG);
+        String items = getArgValue(args, STUB_ITEMS_ARG);
+        String tooManyRequestsRate = getArgValue(args, STUB_429_RATE_ARG);
+        String serverErrorRate = getArgValue(args, STUB_5XX_RATE_ARG);
 
+        StubApiServer server = new StubApiServer(
+                OperationIndex.load(),
+                port,
+                latency == null ? 0 : Long.parseLong(latency),
+                items == null ? StubApiServer.DEFAULT_ITEMS : Integer.parseInt(items),
+                tooManyRequestsRate == null ? 0 : Double.parseDouble(tooManyRequestsRate),
+                serverErrorRate == null ? 0 : Double.parseDouble(serverErrorRate)
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+    }
+
+    /* writes every page of a paginated list as a response line as soon as it arrives */
+    private static Consumer<Response> pageWriter(String id) {
+        return page -> {
+            page.setId(id);
+            try {
+                writeResponse(page);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /* returns the value of an argument given as --name=value, or null if it is missing */
+    private static String getArgValue(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static void writeResponse(Response response) throws IOException {
+        try {
+            response.writeTo(OUT);
+            OUT.write('\n');
+            OUT.flush();
+        } finally {
+            response.release();
+        }
     }
 
 }
@@ -0,0 +1,18 @@
+package com.ionoscloud.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptStats {
+    Integer count;
+    /* milliseconds from the first attempt until the last one returned, waits included */
+    Double timeMs;
+    /* milliseconds spent waiting for the rate limiter and between retries */
+    Double waitMs;
+}
@@ -0,0 +1,17 @@
+package com.ionoscloud.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+/* counters of the response cache since it was created or last reset */
+@Data
+@Builder
+public class CacheStats {
+    Long hits;
+    /* stale entries the api confirmed with a 304 */
+    Long revalidations;
+    Long misses;
+    /* entries dropped because a mutating operation touched their resource */
+    Long invalidations;
+    Integer entries;
+}
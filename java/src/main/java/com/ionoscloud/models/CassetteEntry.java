@@ -0,0 +1,27 @@
+package com.ionoscloud.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/* one recorded http exchange, stored as a single json line of a cassette file */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CassetteEntry {
+    String method;
+    /* encoded path and query, without scheme and host, so that a cassette can be replayed against any base path */
+    String path;
+    String requestBody;
+    Integer statusCode;
+    String message;
+    Map<String, List<String>> headers;
+    String body;
+}
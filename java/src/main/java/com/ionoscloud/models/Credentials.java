@@ -0,0 +1,34 @@
+package com.ionoscloud.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.ToString;
+
+/*
+ * Credentials of a single call: a token, a username and password, or a reference to credentials kept in
+ * the driver's env (see ApiClientPool), so that inputs do not have to carry secrets.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Credentials {
+
+    String username;
+
+    @ToString.Exclude
+    String password;
+
+    @ToString.Exclude
+    String token;
+
+    String ref;
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return isSet(token) || (isSet(username) && isSet(password));
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -1,15 +1,20 @@
 package com.ionoscloud.models;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class HttpResponse {
     Integer statusCode;
     Map<String, List<String>> headers;
-    String body;
+    /* the body as a string, or the RawJson.asText() of a result that was spilled to a file */
+    Object body;
 }
@@ -1,51 +1,98 @@
 package com.ionoscloud.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.utils.JsonUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Input {
 
-    @NotBlank(message = "'operation' cannot be empty")
+    /* optional correlation id, echoed back in the response */
+    String id;
+
     String operation;
 
+    /* product driver that runs this input (see ProductRegistry), instead of the driver's own sdk */
+    String product;
+
     List<Param> params;
 
+    /* operations of a batch, run concurrently by the BatchExecutor instead of 'operation' */
+    List<Input> operations;
+
+    /* ids of the batch operations that have to finish before this one starts */
+    List<String> dependsOn;
+
+    /* maximum number of batch operations, or pages of a paginated list, fetched at the same time */
+    Integer concurrency;
+
+    /* when true, all pages of a list operation with 'offset' and 'limit' params are fetched */
+    Boolean paginate;
+
+    /* limit of every page of a paginated list, defaults to the 'limit' param */
+    Integer pageSize;
+
+    /* dot separated paths of the result fields to return, e.g. "items.id"; see ResultProjection */
+    List<String> select;
+
+    /* keeps the list items matching an expression like "properties.name == 'web'"; see ResultProjection */
+    String filter;
+
+    /* credentials of this call instead of the ones in the driver's env */
+    Credentials credentials;
+
+    /* http transport settings of this call, overriding the ones of the env */
+    TransportConfig transport;
+
+    /* when true, the response carries the time spent in each phase of the call */
+    Boolean timings;
+
+    @JsonIgnore
+    public boolean isOperationSet() {
+        return operations != null || (operation != null && !operation.trim().isEmpty());
+    }
+
     public static Input get() throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-        String line = reader.readLine();
-        while (line != null) {
-            stringBuilder.append(line);
-            line = reader.readLine();
-        }
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        return mapper.readValue(stringBuilder.toString(), Input.class);
+        return get(System.in);
     }
 
-    public void validate() throws IllegalArgumentException {
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        Validator validator = factory.getValidator();
+    /* parses the input straight from the stream, without reading it into a string first */
+    public static Input get(InputStream in) throws IOException {
+        return JsonUtils.MAPPER.readValue(in, Input.class);
+    }
+
+    public static JsonNode readTree(String json) throws IOException {
+        return JsonUtils.MAPPER.readTree(json);
+    }
+
+    public static Input fromTree(JsonNode node) throws IOException {
+        return JsonUtils.MAPPER.treeToValue(node, Input.class);
+    }
 
-        Set<ConstraintViolation<Input>> violations = validator.validate(this);
+    /*
+     * Checks that the operation is set and the credentials are usable, for this input and the operations
+     * of a batch. Params are not checked, so a param with a null value binds as null. This is a plain check
+     * instead of a bean validator, so that a single call does not have to bootstrap a validation provider
+     * first.
+     */
+    public void validate() throws IllegalArgumentException {
+        List<String> violations = new ArrayList<>();
+        collectViolations("", violations);
 
         if (violations.isEmpty()) {
             /* input is valid */
@@ -53,12 +100,33 @@ public class Input {
         }
 
         StringBuilder errorBuilder = new StringBuilder("invalid input: ");
-        for (ConstraintViolation<Input> violation: violations) {
-            errorBuilder.append(violation.getMessage());
+        for (String violation: violations) {
+            errorBuilder.append(violation);
             errorBuilder.append("; ");
         }
 
         throw new IllegalArgumentException(errorBuilder.toString());
     }
 
+    private void collectViolations(String path, List<String> violations) {
+        if (!isOperationSet()) {
+            violations.add("'" + path + "operation' cannot be empty");
+        }
+
+        if (credentials != null && !credentials.isComplete()
+                && (credentials.getRef() == null || credentials.getRef().trim().isEmpty())) {
+            violations.add("'" + path + "credentials' need a token, a username and password, or a ref");
+        }
+
+        if (operations != null) {
+            for (int i = 0; i < operations.size(); i++) {
+                if (operations.get(i) == null) {
+                    violations.add("'" + path + "operations[" + i + "]' must not be null");
+                } else {
+                    operations.get(i).collectViolations(path + "operations[" + i + "].", violations);
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,15 @@
+package com.ionoscloud.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LatencySummary {
+    Long count;
+    Double meanMs;
+    Double p50Ms;
+    Double p90Ms;
+    Double p99Ms;
+    Double maxMs;
+}
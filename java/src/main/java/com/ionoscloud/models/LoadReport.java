@@ -0,0 +1,26 @@
+package com.ionoscloud.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class LoadReport {
+    String operation;
+    /* target requests per second, 0 if the workers were not paced */
+    Double targetRate;
+    Integer concurrency;
+    Long durationMs;
+    Long requests;
+    Long errors;
+    /* completed requests per second */
+    Double throughput;
+    /* request count per http status code; calls that failed without a response are counted as 'exception' */
+    Map<String, Long> statuses;
+    /* time from the request's scheduled start to its response, so that a stalled api is not hidden by the pacing */
+    LatencySummary latency;
+    /* time from the request's actual start to its response */
+    LatencySummary serviceTime;
+}
@@ -0,0 +1,26 @@
+package com.ionoscloud.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Operation {
+    String name;
+    String apiClass;
+    String method;
+    List<String> parameterNames;
+    List<String> parameterTypes;
+    /* http method of the operation, e.g. GET */
+    String httpMethod;
+    /* path template relative to the api base path, e.g. /datacenters/{datacenterId}; null if unknown */
+    String path;
+}
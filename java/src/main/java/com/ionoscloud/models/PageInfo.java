@@ -0,0 +1,20 @@
+package com.ionoscloud.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* position of a page of a paginated list, or the totals of the whole list in its summary response */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageInfo {
+    Integer offset;
+    Integer limit;
+    Integer items;
+    Integer pages;
+}
@@ -1,17 +1,14 @@
 package com.ionoscloud.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Param {
 
-    @NotBlank
     String name;
 
-    @NotNull
+    /* may be null, which binds the api method's argument as null */
     Object value;
 }
@@ -0,0 +1,167 @@
+package com.ionoscloud.models;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.ionoscloud.utils.SpillingWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * A json value that has already been serialized, e.g. by gson, and is written to the output as is
+ * instead of being parsed into a tree and serialized again.
+ *
+ * A large value can live in a file instead (see SpillingWriter); it is then copied to the output in
+ * chunks, and its file is deleted by release().
+ */
+public class RawJson implements JsonSerializable {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final String json;
+    private final File file;
+
+    public RawJson(String json) {
+        this.json = json;
+        this.file = null;
+    }
+
+    public RawJson(File file) {
+        this.json = null;
+        this.file = file;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    public Reader openReader() throws IOException {
+        if (file == null) {
+            return new StringReader(json);
+        }
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), CHUNK_SIZE);
+    }
+
+    /* opens a reader of a value that is read only once, which releases the value when it is closed */
+    public Reader openReaderAndRelease() throws IOException {
+        return new FilterReader(openReader()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release();
+                }
+            }
+        };
+    }
+
+    /* deletes the file of a spilled value; it cannot be written afterwards */
+    public void release() {
+        if (file != null) {
+            SpillingWriter.delete(file);
+        }
+    }
+
+    /* the same value, written as a json string instead of as json, e.g. for an http response body */
+    public JsonSerializable asText() {
+        return new JsonSerializable.Base() {
+            @Override
+            public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+                try (Reader reader = openReader()) {
+                    generator.writeString(reader, -1);
+                }
+            }
+
+            @Override
+            public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+                                          TypeSerializer typeSerializer) throws IOException {
+                serialize(generator, serializers);
+            }
+        };
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        if (file == null) {
+            generator.writeRawValue(json);
+            return;
+        }
+
+        /* the first chunk is written as a value, so that the generator puts its separator in front of it */
+        try (Reader reader = openReader()) {
+            char[] chunk = new char[CHUNK_SIZE];
+            int length = reader.read(chunk);
+            generator.writeRawValue(chunk, 0, Math.max(length, 0));
+            while ((length = reader.read(chunk)) > 0) {
+                generator.writeRaw(chunk, 0, length);
+            }
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, serializers);
+    }
+
+    /* the value as a string, read into memory for a spilled value */
+    @Override
+    public String toString() {
+        if (file == null) {
+            return json;
+        }
+
+        StringWriter value = new StringWriter();
+        try (Reader reader = openReader()) {
+            char[] chunk = new char[CHUNK_SIZE];
+            for (int length = reader.read(chunk); length > 0; length = reader.read(chunk)) {
+                value.write(chunk, 0, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return value.toString();
+    }
+
+    /*
+     * Copies the current json value token by token into a RawJson, without building a tree of it. A value
+     * larger than the spill threshold ends up in a file, like a spilled result. Floats are copied as their
+     * text, since copyCurrentStructure would pass them through a double and round long decimals.
+     */
+    public static class Deserializer extends JsonDeserializer<Object> {
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            SpillingWriter json = new SpillingWriter();
+            try (JsonGenerator generator = parser.getCodec().getFactory().createGenerator(json)) {
+                int depth = 0;
+                do {
+                    JsonToken token = parser.getCurrentToken();
+                    if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                        generator.writeNumber(parser.getText());
+                    } else {
+                        generator.copyCurrentEvent(parser);
+                    }
+
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd()) {
+                        depth--;
+                    }
+                } while (depth > 0 && parser.nextToken() != null);
+            }
+            return json.toRawJson();
+        }
+
+        @Override
+        public Object getNullValue(DeserializationContext context) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ionoscloud.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RequestState {
+    String requestId;
+    String status;
+    String message;
+    Integer polls;
+    Long durationMs;
+}
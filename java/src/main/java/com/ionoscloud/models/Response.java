@@ -1,26 +1,111 @@
 package com.ionoscloud.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ionoscloud.utils.JsonUtils;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.ionoscloud.utils.SpillingWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class Response {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String id;
     HttpResponse httpResponse;
     Error error;
+    /* read back as raw json, e.g. from the response of a product driver, so that it is not parsed into maps */
+    @JsonDeserialize(using = RawJson.Deserializer.class)
     Object result;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<Response> responses;
+    /* offset of a page of a paginated list, or the totals of the list */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    PageInfo page;
+    /* whether the result came from the response cache: hit, revalidated or miss */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String cache;
+    /* attempts made for an sdk operation, including retries */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    AttemptStats attempts;
+    /* milliseconds spent per phase, only set when the input asked for timings */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Map<String, Double> timings;
 
-    public String toString() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+    /* deletes the temp files of spilled results, of this response and the ones it holds, once it is written */
+    public void release() {
+        if (result instanceof RawJson) {
+            ((RawJson) result).release();
+        }
+        if (responses != null) {
+            for (Response response : responses) {
+                response.release();
+            }
+        }
+    }
 
+    /* writes the response json straight to the stream, without building it as a string first */
+    public void writeTo(OutputStream out) throws IOException {
+        JsonUtils.MAPPER.writeValue(out, this);
+    }
+
+    /*
+     * The response json for another driver (see ProductDriver), kept in memory or in a temp file like a
+     * result. The http body of a spilled result is left out, since it is the same json as text, and put back
+     * by fromTransferJson. The temp file is deleted once the reader is closed.
+     */
+    public Reader toTransferJson() throws IOException {
+        dropSpilledBodies();
+        SpillingWriter json = new SpillingWriter();
+        JsonUtils.MAPPER.writeValue(json, this);
+        return json.toRawJson().openReaderAndRelease();
+    }
+
+    public static Response fromTransferJson(Reader json) throws IOException {
+        Response response = JsonUtils.MAPPER.readValue(json, Response.class);
+        response.restoreBodies();
+        return response;
+    }
+
+    private void dropSpilledBodies() {
+        if (result instanceof RawJson && ((RawJson) result).isSpilled() && httpResponse != null) {
+            httpResponse.setBody(null);
+        }
+        if (responses != null) {
+            for (Response response : responses) {
+                response.dropSpilledBodies();
+            }
+        }
+    }
+
+    private void restoreBodies() {
+        if (result instanceof RawJson && httpResponse != null && httpResponse.getBody() == null) {
+            RawJson json = (RawJson) result;
+            httpResponse.setBody(json.isSpilled() ? json.asText() : json.toString());
+        }
+        if (responses != null) {
+            for (Response response : responses) {
+                response.restoreBodies();
+            }
+        }
+    }
+
+    public String toString() {
         try {
-            return objectMapper.writeValueAsString(this);
+            return JsonUtils.MAPPER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
 
             /* return the exception as an error */
@@ -0,0 +1,39 @@
+package com.ionoscloud.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* http transport settings of the api client; unset fields keep the client's defaults */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransportConfig {
+    Integer maxIdleConnections;
+    Long keepAliveSeconds;
+    /* false restricts the client to http/1.1 */
+    Boolean http2;
+    /* false asks for uncompressed responses */
+    Boolean compression;
+    Long connectTimeoutMs;
+    Long readTimeoutMs;
+
+    /* returns a config with the fields set in the overrides replacing the ones of this config */
+    public TransportConfig merge(TransportConfig overrides) {
+        if (overrides == null) {
+            return this;
+        }
+
+        return TransportConfig
+                .builder()
+                .maxIdleConnections(overrides.maxIdleConnections != null ? overrides.maxIdleConnections : maxIdleConnections)
+                .keepAliveSeconds(overrides.keepAliveSeconds != null ? overrides.keepAliveSeconds : keepAliveSeconds)
+                .http2(overrides.http2 != null ? overrides.http2 : http2)
+                .compression(overrides.compression != null ? overrides.compression : compression)
+                .connectTimeoutMs(overrides.connectTimeoutMs != null ? overrides.connectTimeoutMs : connectTimeoutMs)
+                .readTimeoutMs(overrides.readTimeoutMs != null ? overrides.readTimeoutMs : readTimeoutMs)
+                .build();
+    }
+}
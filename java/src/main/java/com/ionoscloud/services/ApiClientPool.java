@@ -0,0 +1,108 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.Configuration;
+import com.ionoscloud.models.Credentials;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/*
+ * Keeps an authenticated ApiClient per identity for calls that bring their own credentials, evicting the
+ * least recently used one once IONOS_DRIVER_CLIENT_POOL_SIZE clients are pooled.
+ *
+ * Clients are keyed by a hash of their credentials. They use the base path and the http client of the
+ * service's own client, so all identities share its connection pool, transport settings and interceptors.
+ *
+ * A credential reference {"ref": "tenant-a"} is looked up in the IONOS_TOKEN_TENANT_A env var, or in
+ * IONOS_USERNAME_TENANT_A and IONOS_PASSWORD_TENANT_A.
+ */
+public class ApiClientPool {
+
+    public static final String POOL_SIZE_ENV_VAR = "IONOS_DRIVER_CLIENT_POOL_SIZE";
+
+    private static final int DEFAULT_POOL_SIZE = 16;
+
+    private final Logger log = Logger.getLogger("api-client-pool");
+
+    private final ApiClient baseClient;
+    private final Map<String, ClientContext> clients;
+
+    public ApiClientPool(ApiClient baseClient, int maxSize) {
+        this.baseClient = baseClient;
+        this.clients = new LinkedHashMap<String, ClientContext>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ClientContext> eldest) {
+                /* calls still running on an evicted client finish normally */
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static int getMaxSizeFromEnv() {
+        String size = System.getenv(POOL_SIZE_ENV_VAR);
+        return size == null || size.trim().isEmpty() ? DEFAULT_POOL_SIZE : Integer.parseInt(size.trim());
+    }
+
+    public synchronized ClientContext get(Credentials credentials) {
+        Credentials resolved = resolve(credentials);
+        String identity = identity(resolved);
+
+        ClientContext client = clients.get(identity);
+        if (client == null) {
+            client = new ClientContext(newApiClient(resolved), resolved);
+            clients.put(identity, client);
+            log.info("pooled a new api client, " + clients.size() + " clients in the pool");
+        }
+
+        return client;
+    }
+
+    private ApiClient newApiClient(Credentials credentials) {
+        ApiClient apiClient = new ApiClient();
+        apiClient.setBasePath(baseClient.getBasePath());
+        apiClient.setHttpClient(baseClient.getHttpClient());
+        SdkService.authenticate(apiClient, credentials.getUsername(), credentials.getPassword(), credentials.getToken());
+        return apiClient;
+    }
+
+    /* replaces a credential reference with the credentials it names */
+    static Credentials resolve(Credentials credentials) {
+        if (credentials.isComplete()) {
+            return credentials;
+        }
+
+        String suffix = "_" + credentials.getRef().trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+        Credentials resolved = new Credentials();
+        resolved.setRef(credentials.getRef());
+        resolved.setToken(System.getenv(Configuration.IONOS_TOKEN_ENV_VAR + suffix));
+        resolved.setUsername(System.getenv(Configuration.IONOS_USERNAME_ENV_VAR + suffix));
+        resolved.setPassword(System.getenv(Configuration.IONOS_PASSWORD_ENV_VAR + suffix));
+
+        if (!resolved.isComplete()) {
+            throw new IllegalArgumentException("no credentials found for ref '" + credentials.getRef() + "'");
+        }
+        return resolved;
+    }
+
+    private static String identity(Credentials credentials) {
+        String identity = credentials.getToken() != null && !credentials.getToken().trim().isEmpty() ?
+                "token:" + credentials.getToken() :
+                "basic:" + credentials.getUsername() + ":" + credentials.getPassword();
+
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
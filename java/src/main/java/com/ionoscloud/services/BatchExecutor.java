@@ -0,0 +1,251 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.models.Credentials;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Param;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Runs the operations of a batch input concurrently over the same SdkService.
+ *
+ * Operations run on a bounded executor (virtual threads when the jvm supports them). An operation can
+ * declare the ids of other operations in 'dependsOn', and it can use values from their responses in
+ * its params through references of the form ${<id><json pointer>}, e.g. "${datacenter/result/id}".
+ * A referenced operation is an implicit dependency. If a dependency fails, the operations depending
+ * on it are not run.
+ */
+public class BatchExecutor {
+
+    private static final int DEFAULT_CONCURRENCY = 8;
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{([^}/]+)([^}]*)}");
+
+    private final Logger log = Logger.getLogger("batch-executor");
+
+    private final SdkService sdkService;
+
+    /* credentials of the batch, used by the operations that do not bring their own */
+    private Credentials credentials;
+
+    public BatchExecutor(SdkService sdkService) {
+        this.sdkService = sdkService;
+    }
+
+    public Response run(Input batch) throws InterruptedException {
+        credentials = batch.getCredentials();
+        int concurrency = batch.getConcurrency() == null || batch.getConcurrency() < 1 ?
+                DEFAULT_CONCURRENCY : batch.getConcurrency();
+
+        Map<String, Input> operations = new LinkedHashMap<>();
+        int position = 0;
+        for (Input operation : batch.getOperations()) {
+            position++;
+            String id = operation.getId() == null ? String.valueOf(position) : operation.getId();
+            if (operations.putIfAbsent(id, operation) != null) {
+                throw new IllegalArgumentException("duplicate batch operation id '" + id + "'");
+            }
+        }
+
+        ExecutorService executor = newExecutor(concurrency, "batch-executor");
+        Semaphore permits = new Semaphore(concurrency);
+        Map<String, CompletableFuture<Response>> futures = new HashMap<>();
+        Map<String, JsonNode> trees = new ConcurrentHashMap<>();
+
+        try {
+            for (String id : operations.keySet()) {
+                schedule(id, operations, futures, new HashSet<>(), trees, executor, permits);
+            }
+
+            List<Response> responses = new ArrayList<>();
+            for (String id : operations.keySet()) {
+                try {
+                    responses.add(futures.get(id).get());
+                } catch (ExecutionException e) {
+                    Response response = SdkService.errorResponse(e.getCause());
+                    response.setId(id);
+                    responses.add(response);
+                }
+            }
+
+            return Response.builder().responses(responses).build();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Response> schedule(String id, Map<String, Input> operations,
+                                                 Map<String, CompletableFuture<Response>> futures, Set<String> path,
+                                                 Map<String, JsonNode> trees, ExecutorService executor,
+                                                 Semaphore permits) {
+        CompletableFuture<Response> future = futures.get(id);
+        if (future != null) {
+            return future;
+        }
+
+        Input operation = operations.get(id);
+        if (operation == null) {
+            throw new IllegalArgumentException("unknown batch operation id '" + id + "'");
+        }
+        if (!path.add(id)) {
+            throw new IllegalArgumentException("dependency cycle at batch operation '" + id + "'");
+        }
+
+        Set<String> dependencyIds = new LinkedHashSet<>();
+        if (operation.getDependsOn() != null) {
+            dependencyIds.addAll(operation.getDependsOn());
+        }
+        if (operation.getParams() != null) {
+            for (Param param : operation.getParams()) {
+                collectReferences(param.getValue(), dependencyIds);
+            }
+        }
+
+        Map<String, CompletableFuture<Response>> dependencies = new LinkedHashMap<>();
+        for (String dependencyId : dependencyIds) {
+            dependencies.put(dependencyId, schedule(dependencyId, operations, futures, path, trees, executor, permits));
+        }
+        path.remove(id);
+
+        future = CompletableFuture
+                .allOf(dependencies.values().toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> execute(id, operation, dependencies, trees, permits), executor);
+
+        futures.put(id, future);
+        return future;
+    }
+
+    private Response execute(String id, Input operation, Map<String, CompletableFuture<Response>> dependencies,
+                             Map<String, JsonNode> trees, Semaphore permits) {
+        Response response;
+
+        try {
+            for (Map.Entry<String, CompletableFuture<Response>> dependency : dependencies.entrySet()) {
+                if (dependency.getValue().join().getError() != null) {
+                    throw new IllegalStateException("dependency '" + dependency.getKey() + "' failed");
+                }
+            }
+
+            /* every other field of the operation is passed on as is */
+            Input.InputBuilder resolved = operation
+                    .toBuilder()
+                    .id(id)
+                    .credentials(operation.getCredentials() != null ? operation.getCredentials() : credentials);
+            if (operation.getParams() != null) {
+                List<Param> params = new ArrayList<>();
+                for (Param param : operation.getParams()) {
+                    Param resolvedParam = new Param();
+                    resolvedParam.setName(param.getName());
+                    resolvedParam.setValue(resolve(param.getValue(), dependencies, trees));
+                    params.add(resolvedParam);
+                }
+                resolved.params(params);
+            }
+
+            permits.acquire();
+            try {
+                log.info("running batch operation " + id + ": " + operation.getOperation());
+                response = sdkService.run(resolved.build());
+            } finally {
+                permits.release();
+            }
+        } catch (Throwable e) {
+            response = SdkService.errorResponse(e);
+        }
+
+        response.setId(id);
+        return response;
+    }
+
+    private static void collectReferences(Object value, Set<String> ids) {
+        if (value instanceof String) {
+            Matcher matcher = REFERENCE.matcher((String) value);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+        } else if (value instanceof Map) {
+            for (Object item : ((Map<?, ?>) value).values()) {
+                collectReferences(item, ids);
+            }
+        } else if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                collectReferences(item, ids);
+            }
+        }
+    }
+
+    /* replaces references to dependency responses; a value made of a single reference keeps the referenced type */
+    private static Object resolve(Object value, Map<String, CompletableFuture<Response>> dependencies,
+                                  Map<String, JsonNode> trees) throws IOException {
+        if (value instanceof String) {
+            String text = (String) value;
+            Matcher matcher = REFERENCE.matcher(text);
+
+            if (matcher.matches()) {
+                JsonNode node = lookup(matcher.group(1), matcher.group(2), dependencies, trees);
+                return JsonUtils.MAPPER.treeToValue(node, Object.class);
+            }
+
+            StringBuffer resolved = new StringBuffer();
+            matcher.reset();
+            while (matcher.find()) {
+                JsonNode node = lookup(matcher.group(1), matcher.group(2), dependencies, trees);
+                matcher.appendReplacement(resolved, Matcher.quoteReplacement(node.isValueNode() ? node.asText() : node.toString()));
+            }
+            matcher.appendTail(resolved);
+            return resolved.toString();
+        } else if (value instanceof Map) {
+            Map<Object, Object> resolved = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                resolved.put(entry.getKey(), resolve(entry.getValue(), dependencies, trees));
+            }
+            return resolved;
+        } else if (value instanceof List) {
+            List<Object> resolved = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                resolved.add(resolve(item, dependencies, trees));
+            }
+            return resolved;
+        }
+
+        return value;
+    }
+
+    private static JsonNode lookup(String id, String pointer, Map<String, CompletableFuture<Response>> dependencies,
+                                   Map<String, JsonNode> trees) throws IOException {
+        JsonNode tree = trees.get(id);
+        if (tree == null) {
+            /* dependency responses are only parsed into a tree when something references them */
+            tree = JsonUtils.MAPPER.readTree(dependencies.get(id).join().toString());
+            trees.put(id, tree);
+        }
+
+        JsonNode node = tree.at(pointer);
+        if (node.isMissingNode()) {
+            throw new IllegalArgumentException("reference ${" + id + pointer + "} not found");
+        }
+        return node;
+    }
+
+    static ExecutorService newExecutor(int concurrency, String threadName) {
+        try {
+            /* virtual threads are available from java 21 on; the driver itself is compiled for java 8 */
+            Method virtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreadExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
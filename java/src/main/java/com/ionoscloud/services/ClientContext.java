@@ -0,0 +1,91 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.models.Credentials;
+import com.ionoscloud.models.TransportConfig;
+import okhttp3.OkHttpClient;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * An api client together with the api instances bound to it and the invokers calling into them, which
+ * are created once per class / method. Also holds the rate limiter throttling the client's calls, if
+ * throttling is configured, and the request poller waiting for its requests.
+ *
+ * Calls with transport overrides go through a client derived from this one, which shares its credentials
+ * and rate limiter but calls through the http client of the overrides.
+ */
+public class ClientContext {
+
+    private final ApiClient apiClient;
+    /* the credentials of a pooled client, null for the service's own client */
+    private final Credentials credentials;
+
+    private final Map<Class<?>, Object> apiInstances = new ConcurrentHashMap<>();
+    private final Map<Method, OperationInvoker> invokers = new ConcurrentHashMap<>();
+
+    /* null unless throttling is configured in the env */
+    private final RateLimiter rateLimiter;
+
+    /* clients derived from this one, by their http client */
+    private final Map<OkHttpClient, ClientContext> transportClients = new ConcurrentHashMap<>();
+
+    private RequestPoller requestPoller;
+
+    public ClientContext(ApiClient apiClient, Credentials credentials) {
+        this(apiClient, credentials, RateLimiter.fromEnv());
+    }
+
+    private ClientContext(ApiClient apiClient, Credentials credentials, RateLimiter rateLimiter) {
+        this.apiClient = apiClient;
+        this.credentials = credentials;
+        this.rateLimiter = rateLimiter;
+    }
+
+    public ApiClient getApiClient() {
+        return apiClient;
+    }
+
+    public Credentials getCredentials() {
+        return credentials;
+    }
+
+    public OperationInvoker getInvoker(Method method) throws ReflectiveOperationException {
+        OperationInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            Class<?> apiClass = method.getDeclaringClass();
+            Object api = apiInstances.get(apiClass);
+            if (api == null) {
+                api = apiClass.getDeclaredConstructor(ApiClient.class).newInstance(apiClient);
+                Object existing = apiInstances.putIfAbsent(apiClass, api);
+                api = existing == null ? api : existing;
+            }
+
+            invoker = new OperationInvoker(method, api, rateLimiter);
+            OperationInvoker existing = invokers.putIfAbsent(method, invoker);
+            invoker = existing == null ? invoker : existing;
+        }
+
+        return invoker;
+    }
+
+    /* this client, or the one derived from it for the given transport overrides */
+    public ClientContext withTransport(HttpTransport transport, TransportConfig overrides) {
+        OkHttpClient httpClient = transport.client(overrides);
+        if (httpClient == apiClient.getHttpClient()) {
+            return this;
+        }
+
+        return transportClients.computeIfAbsent(httpClient,
+                client -> new ClientContext(HttpTransport.derive(apiClient, client), credentials, rateLimiter));
+    }
+
+    synchronized RequestPoller getRequestPoller(SdkService sdkService, boolean listSupported) {
+        if (requestPoller == null) {
+            requestPoller = new RequestPoller(sdkService, listSupported, credentials);
+        }
+        return requestPoller;
+    }
+}
@@ -0,0 +1,232 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/*
+ * Serves a single, warmed up SdkService over http, so that callers can keep their connections open
+ * instead of starting a driver process per call.
+ *
+ *   POST /run         takes an Input json and returns the Response json; for a paginated list, the
+ *                     pages and then the summary are streamed as newline-delimited json. Failures of
+ *                     the driver itself get an error status: 400 for an invalid input, 404 for an
+ *                     unknown operation and 500 for anything else. An error returned by the api is a
+ *                     result like any other and comes with a 200, as do the pages of a list once they
+ *                     are streamed.
+ *   GET  /health      returns 200 once the service is warm, 503 before
+ *   GET  /operations  lists the operations of the operation index
+ *   GET  /metrics     returns the latency histograms per operation and phase, ?reset=true clears them
+ */
+public class DriverServer {
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final int BACKLOG = 128;
+
+    private final Logger log = Logger.getLogger("driver-server");
+
+    private final SdkService sdkService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile boolean warm;
+
+    public DriverServer(SdkService sdkService, int port, int threads) throws IOException {
+        this.sdkService = sdkService;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.server.createContext("/run", this::handleRun);
+        this.server.createContext("/health", this::handleHealth);
+        this.server.createContext("/operations", this::handleOperations);
+        this.server.createContext("/metrics", this::handleMetrics);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        log.info("listening on port " + server.getAddress().getPort());
+
+        warmUp();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void warmUp() {
+        long start = System.currentTimeMillis();
+        sdkService.warmUp();
+        warm = true;
+        log.info("warm after " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private void handleRun(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendStatus(exchange, HttpURLConnection.HTTP_BAD_METHOD);
+            return;
+        }
+
+        Response response;
+        int status = HttpURLConnection.HTTP_OK;
+        String operation = null;
+        PhaseTimer timer = new PhaseTimer();
+        PageWriter pages = new PageWriter(exchange);
+
+        try (InputStream body = exchange.getRequestBody()) {
+            Input input;
+            try {
+                input = JsonUtils.MAPPER.readValue(body, Input.class);
+            } catch (JsonProcessingException e) {
+                status = HttpURLConnection.HTTP_BAD_REQUEST;
+                throw e;
+            }
+            timer.mark(PhaseTimer.READ);
+
+            input.validate();
+            timer.mark(PhaseTimer.VALIDATE);
+
+            operation = input.getOperation();
+            if (input.getOperations() == null && input.getProduct() == null && !sdkService.hasOperation(operation)) {
+                status = HttpURLConnection.HTTP_NOT_FOUND;
+            }
+            pages.id = input.getId();
+            response = sdkService.run(input, timer, pages);
+            response.setId(input.getId());
+        } catch (Throwable e) {
+            if (status == HttpURLConnection.HTTP_OK) {
+                status = e instanceof IllegalArgumentException ?
+                        HttpURLConnection.HTTP_BAD_REQUEST : HttpURLConnection.HTTP_INTERNAL_ERROR;
+            }
+            response = SdkService.errorResponse(e);
+        }
+
+        long writeStart = System.nanoTime();
+        try {
+            if (pages.out != null) {
+                /* the pages are already out, the summary is the last line */
+                try (OutputStream out = pages.out) {
+                    response.writeTo(out);
+                    out.write('\n');
+                }
+            } else {
+                exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+                exchange.sendResponseHeaders(status, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    response.writeTo(out);
+                }
+            }
+        } finally {
+            response.release();
+        }
+
+        if (operation != null) {
+            sdkService.getLatencyHistograms().record(operation, PhaseTimer.WRITE, System.nanoTime() - writeStart);
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendStatus(exchange, HttpURLConnection.HTTP_BAD_METHOD);
+            return;
+        }
+
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("status", warm ? "ok" : "warming up");
+        health.put("warm", warm);
+        health.put("operations", sdkService.getOperationIndex().getOperations().size());
+
+        sendJson(exchange, warm ? HttpURLConnection.HTTP_OK : HttpURLConnection.HTTP_UNAVAILABLE, health);
+    }
+
+    private void handleOperations(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendStatus(exchange, HttpURLConnection.HTTP_BAD_METHOD);
+            return;
+        }
+
+        sendJson(exchange, HttpURLConnection.HTTP_OK, sdkService.getOperationIndex().getOperations());
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendStatus(exchange, HttpURLConnection.HTTP_BAD_METHOD);
+            return;
+        }
+
+        LatencyHistograms histograms = sdkService.getLatencyHistograms();
+        sendJson(exchange, HttpURLConnection.HTTP_OK, histograms.summarize());
+
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.contains("reset=true")) {
+            histograms.reset();
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] json = JsonUtils.MAPPER.writeValueAsBytes(value);
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static void sendStatus(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    /* streams the pages of a paginated list as json lines, sending the headers with the first page */
+    private static class PageWriter implements Consumer<Response> {
+        final HttpExchange exchange;
+        String id;
+        OutputStream out;
+
+        PageWriter(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void accept(Response page) {
+            try {
+                if (out == null) {
+                    exchange.getResponseHeaders().set("Content-Type", NDJSON_CONTENT_TYPE);
+                    exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+                    out = exchange.getResponseBody();
+                }
+
+                page.setId(id);
+                page.writeTo(out);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                page.release();
+            }
+        }
+    }
+}
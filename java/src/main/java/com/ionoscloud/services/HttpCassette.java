@@ -0,0 +1,191 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.ionoscloud.models.CassetteEntry;
+import com.ionoscloud.utils.JsonUtils;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Logger;
+
+/*
+ * Records the http exchanges of the ApiClient to a cassette file, or replays them from it without
+ * touching the network.
+ *
+ * A cassette is a newline-delimited json file with one CassetteEntry per exchange. On replay, requests
+ * are matched by method, path, query and body. Identical requests, e.g. the polls of waitForRequest,
+ * are answered with their recorded responses in order; once those are used up, the last one is repeated.
+ * A request without a recorded exchange fails with an IOException, which the sdk reports as an ApiException.
+ *
+ * The cassette is configured through the IONOS_DRIVER_CASSETTE (file) and IONOS_DRIVER_CASSETTE_MODE
+ * (record or replay, default replay) env vars.
+ */
+public class HttpCassette implements Interceptor {
+
+    public static final String CASSETTE_ENV_VAR = "IONOS_DRIVER_CASSETTE";
+    public static final String CASSETTE_MODE_ENV_VAR = "IONOS_DRIVER_CASSETTE_MODE";
+
+    public enum Mode { RECORD, REPLAY }
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private final Logger log = Logger.getLogger("http-cassette");
+
+    private final Mode mode;
+    private final Writer writer;
+    private final Map<String, Deque<CassetteEntry>> exchanges = new HashMap<>();
+
+    private HttpCassette(Mode mode, Writer writer) {
+        this.mode = mode;
+        this.writer = writer;
+    }
+
+    /* starts a new recording, replacing the file */
+    public static HttpCassette record(File file) throws IOException {
+        return new HttpCassette(
+                Mode.RECORD,
+                new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+        );
+    }
+
+    public static HttpCassette replay(File file) throws IOException {
+        HttpCassette cassette = new HttpCassette(Mode.REPLAY, null);
+
+        try (MappingIterator<CassetteEntry> entries = JsonUtils.MAPPER.readerFor(CassetteEntry.class).readValues(file)) {
+            while (entries.hasNext()) {
+                CassetteEntry entry = entries.next();
+                cassette.exchanges
+                        .computeIfAbsent(key(entry.getMethod(), entry.getPath(), entry.getRequestBody()), key -> new ArrayDeque<>())
+                        .add(entry);
+            }
+        }
+
+        cassette.log.info("replaying " + cassette.exchanges.size() + " distinct exchanges from " + file);
+        return cassette;
+    }
+
+    /* returns the cassette configured through the env vars, or null if there is none */
+    public static HttpCassette fromEnv() throws IOException {
+        String file = System.getenv(CASSETTE_ENV_VAR);
+        if (file == null || file.trim().isEmpty()) {
+            return null;
+        }
+
+        return getModeFromEnv() == Mode.RECORD ? record(new File(file)) : replay(new File(file));
+    }
+
+    /* the cassette mode set in the env, or null if no cassette is configured */
+    public static Mode getModeFromEnv() {
+        String file = System.getenv(CASSETTE_ENV_VAR);
+        if (file == null || file.trim().isEmpty()) {
+            return null;
+        }
+
+        String mode = System.getenv(CASSETTE_MODE_ENV_VAR);
+        return mode == null || mode.trim().isEmpty() ? Mode.REPLAY : Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String path = path(request);
+        String requestBody = requestBody(request);
+
+        if (mode == Mode.REPLAY) {
+            return replay(request, path, requestBody);
+        }
+
+        Response response = chain.proceed(request);
+
+        /* the body can only be read once, so the response is rebuilt around the recorded bytes */
+        ResponseBody body = response.body();
+        MediaType contentType = body == null ? null : body.contentType();
+        String content = body == null ? null : body.string();
+
+        write(
+                CassetteEntry
+                        .builder()
+                        .method(request.method())
+                        .path(path)
+                        .requestBody(requestBody)
+                        .statusCode(response.code())
+                        .message(response.message())
+                        .headers(response.headers().toMultimap())
+                        .body(content)
+                        .build()
+        );
+
+        return content == null ? response : response.newBuilder().body(ResponseBody.create(contentType, content)).build();
+    }
+
+    private Response replay(Request request, String path, String requestBody) throws IOException {
+        CassetteEntry entry;
+        synchronized (exchanges) {
+            Deque<CassetteEntry> recorded = exchanges.get(key(request.method(), path, requestBody));
+            if (recorded == null) {
+                throw new IOException("no recorded exchange for " + request.method() + " " + path);
+            }
+            entry = recorded.size() > 1 ? recorded.poll() : recorded.peek();
+        }
+
+        Response.Builder response = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(entry.getStatusCode())
+                .message(entry.getMessage() == null ? "" : entry.getMessage());
+
+        String contentType = JSON_CONTENT_TYPE;
+        if (entry.getHeaders() != null) {
+            for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+                for (String value : header.getValue()) {
+                    response.addHeader(header.getKey(), value);
+                    if ("content-type".equalsIgnoreCase(header.getKey())) {
+                        contentType = value;
+                    }
+                }
+            }
+        }
+
+        return response
+                .body(ResponseBody.create(MediaType.parse(contentType), entry.getBody() == null ? "" : entry.getBody()))
+                .build();
+    }
+
+    private synchronized void write(CassetteEntry entry) throws IOException {
+        writer.write(JsonUtils.MAPPER.writeValueAsString(entry));
+        writer.write('\n');
+        /* flushed per exchange, so that the cassette is complete even if the driver is killed */
+        writer.flush();
+    }
+
+    private static String path(Request request) {
+        String query = request.url().encodedQuery();
+        return query == null ? request.url().encodedPath() : request.url().encodedPath() + "?" + query;
+    }
+
+    private static String requestBody(Request request) throws IOException {
+        if (request.body() == null) {
+            return null;
+        }
+
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
+    private static String key(String method, String path, String requestBody) {
+        return method + " " + path + "\n" + (requestBody == null ? "" : requestBody);
+    }
+}
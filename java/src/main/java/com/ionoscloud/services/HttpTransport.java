@@ -0,0 +1,195 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.auth.ApiKeyAuth;
+import com.ionoscloud.auth.Authentication;
+import com.ionoscloud.auth.HttpBasicAuth;
+import com.ionoscloud.auth.HttpBearerAuth;
+import com.ionoscloud.models.TransportConfig;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/*
+ * Builds the http clients for transport settings.
+ *
+ * The settings come from the IONOS_DRIVER_* env vars below, installed on the ApiClient once at startup,
+ * and can be overridden per input by Input.transport. An input with overrides does not touch the shared
+ * ApiClient, since calls of other inputs may be running on it; it gets a client of its own per distinct
+ * config, which is built once and kept. Every client is derived from the one the ApiClient started with,
+ * so interceptors such as the http cassette are kept, and clients with the same pool settings share one
+ * connection pool.
+ *
+ * A malformed env var fails the startup with the name of the var, instead of being ignored or read as false.
+ */
+public class HttpTransport {
+
+    public static final String MAX_IDLE_CONNECTIONS_ENV_VAR = "IONOS_DRIVER_MAX_IDLE_CONNECTIONS";
+    public static final String KEEP_ALIVE_SECONDS_ENV_VAR = "IONOS_DRIVER_KEEP_ALIVE_SECONDS";
+    public static final String HTTP2_ENV_VAR = "IONOS_DRIVER_HTTP2";
+    public static final String COMPRESSION_ENV_VAR = "IONOS_DRIVER_COMPRESSION";
+    public static final String CONNECT_TIMEOUT_ENV_VAR = "IONOS_DRIVER_CONNECT_TIMEOUT_MS";
+    public static final String READ_TIMEOUT_ENV_VAR = "IONOS_DRIVER_READ_TIMEOUT_MS";
+
+    /* okhttp's defaults, used when only one of the connection pool settings is given */
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+    private final Logger log = Logger.getLogger("http-transport");
+
+    private final ApiClient apiClient;
+    private final OkHttpClient baseClient;
+    private final TransportConfig baseConfig;
+
+    private final Map<TransportConfig, OkHttpClient> clients = new ConcurrentHashMap<>();
+    /* pools by their max idle connections and keep alive */
+    private final Map<List<Object>, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    public HttpTransport(ApiClient apiClient, TransportConfig baseConfig) {
+        this.apiClient = apiClient;
+        this.baseClient = apiClient.getHttpClient();
+        this.baseConfig = baseConfig;
+    }
+
+    public static TransportConfig fromEnv() {
+        return fromEnv(System.getenv());
+    }
+
+    static TransportConfig fromEnv(Map<String, String> env) {
+        return TransportConfig
+                .builder()
+                .maxIdleConnections(intEnv(env, MAX_IDLE_CONNECTIONS_ENV_VAR))
+                .keepAliveSeconds(longEnv(env, KEEP_ALIVE_SECONDS_ENV_VAR))
+                .http2(booleanEnv(env, HTTP2_ENV_VAR))
+                .compression(booleanEnv(env, COMPRESSION_ENV_VAR))
+                .connectTimeoutMs(longEnv(env, CONNECT_TIMEOUT_ENV_VAR))
+                .readTimeoutMs(longEnv(env, READ_TIMEOUT_ENV_VAR))
+                .build();
+    }
+
+    /* sets the client of the base config on the ApiClient; only called at startup, before any call is made */
+    public void install() {
+        if (!baseConfig.equals(new TransportConfig())) {
+            apiClient.setHttpClient(client(null));
+            log.info("using http transport " + baseConfig);
+        }
+    }
+
+    /* the client of the base config with the given overrides */
+    public OkHttpClient client(TransportConfig overrides) {
+        TransportConfig config = baseConfig.merge(overrides);
+        if (config.equals(new TransportConfig())) {
+            return baseClient;
+        }
+
+        return clients.computeIfAbsent(config, key -> {
+            log.info("building http transport " + key);
+            return build(key);
+        });
+    }
+
+    /* an ApiClient with the base path and authentication of the given one, calling through another http client */
+    public static ApiClient derive(ApiClient source, OkHttpClient httpClient) {
+        ApiClient derived = new ApiClient();
+        derived.setBasePath(source.getBasePath());
+        derived.setHttpClient(httpClient);
+
+        for (Map.Entry<String, Authentication> auth : source.getAuthentications().entrySet()) {
+            Authentication target = derived.getAuthentication(auth.getKey());
+            if (auth.getValue() instanceof HttpBasicAuth && target instanceof HttpBasicAuth) {
+                ((HttpBasicAuth) target).setUsername(((HttpBasicAuth) auth.getValue()).getUsername());
+                ((HttpBasicAuth) target).setPassword(((HttpBasicAuth) auth.getValue()).getPassword());
+            } else if (auth.getValue() instanceof ApiKeyAuth && target instanceof ApiKeyAuth) {
+                ((ApiKeyAuth) target).setApiKey(((ApiKeyAuth) auth.getValue()).getApiKey());
+                ((ApiKeyAuth) target).setApiKeyPrefix(((ApiKeyAuth) auth.getValue()).getApiKeyPrefix());
+            } else if (auth.getValue() instanceof HttpBearerAuth && target instanceof HttpBearerAuth) {
+                ((HttpBearerAuth) target).setBearerToken(((HttpBearerAuth) auth.getValue()).getBearerToken());
+            }
+        }
+        return derived;
+    }
+
+    private OkHttpClient build(TransportConfig config) {
+        OkHttpClient.Builder builder = baseClient.newBuilder();
+
+        if (config.getMaxIdleConnections() != null || config.getKeepAliveSeconds() != null) {
+            int maxIdleConnections = config.getMaxIdleConnections() != null ?
+                    config.getMaxIdleConnections() : DEFAULT_MAX_IDLE_CONNECTIONS;
+            long keepAliveSeconds = config.getKeepAliveSeconds() != null ?
+                    config.getKeepAliveSeconds() : DEFAULT_KEEP_ALIVE_SECONDS;
+            builder.connectionPool(pools.computeIfAbsent(
+                    Arrays.<Object>asList(maxIdleConnections, keepAliveSeconds),
+                    key -> new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS)
+            ));
+        }
+
+        if (config.getHttp2() != null) {
+            builder.protocols(config.getHttp2() ?
+                    Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) :
+                    Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
+        if (Boolean.FALSE.equals(config.getCompression())) {
+            /* okhttp asks for gzip and unpacks it transparently, unless the request already names an encoding */
+            builder.addInterceptor(chain -> chain.proceed(
+                    chain.request().newBuilder().header("Accept-Encoding", "identity").build()
+            ));
+        }
+
+        if (config.getConnectTimeoutMs() != null) {
+            builder.connectTimeout(config.getConnectTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getReadTimeoutMs() != null) {
+            builder.readTimeout(config.getReadTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+
+        return builder.build();
+    }
+
+    private static Integer intEnv(Map<String, String> env, String name) {
+        Long value = longEnv(env, name);
+        if (value != null && value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(name + " is out of range: " + value);
+        }
+        return value == null ? null : value.intValue();
+    }
+
+    private static Long longEnv(Map<String, String> env, String name) {
+        String value = env.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException(name + " must not be negative: " + value.trim());
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: '" + value + "'");
+        }
+    }
+
+    private static Boolean booleanEnv(Map<String, String> env, String name) {
+        String value = env.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+
+        if ("true".equalsIgnoreCase(value.trim())) {
+            return true;
+        } else if ("false".equalsIgnoreCase(value.trim())) {
+            return false;
+        }
+        throw new IllegalArgumentException(name + " must be true or false: '" + value + "'");
+    }
+}
@@ -0,0 +1,81 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.models.LatencySummary;
+
+/*
+ * Latency histogram with logarithmic buckets, each 10% wider than the previous one, from 1 microsecond up to
+ * about 20 minutes; longer values share the last bucket. Percentiles are reported as the upper bound of their
+ * bucket, and never above the max.
+ */
+public class LatencyHistogram {
+
+    private static final double BUCKET_GROWTH = 1.1;
+    private static final double LOG_BUCKET_GROWTH = Math.log(BUCKET_GROWTH);
+    private static final long MIN_NANOS = 1000;
+    private static final int BUCKETS = 220;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    public synchronized void record(long nanos) {
+        counts[bucket(nanos)]++;
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    public synchronized void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /* latency below which the given fraction (0..1) of the recorded values lie, in nanoseconds */
+    public synchronized long percentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                /* the last bucket is open ended, its values are only bounded by the max */
+                return i == BUCKETS - 1 ? max : Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    public synchronized LatencySummary summarize() {
+        return LatencySummary
+                .builder()
+                .count(count)
+                .meanMs(count == 0 ? 0 : total / 1e6 / count)
+                .p50Ms(percentile(0.5) / 1e6)
+                .p90Ms(percentile(0.9) / 1e6)
+                .p99Ms(percentile(0.99) / 1e6)
+                .maxMs(max / 1e6)
+                .build();
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log((double) nanos / MIN_NANOS) / LOG_BUCKET_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) (MIN_NANOS * Math.pow(BUCKET_GROWTH, bucket));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.models.LatencySummary;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* per operation, per phase latency histograms, aggregated over the lifetime of a long running driver */
+public class LatencyHistograms {
+
+    public static final String TOTAL = "total";
+
+    private final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    public void record(String operation, String phase, long nanos) {
+        histograms
+                .computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase, key -> new LatencyHistogram())
+                .record(nanos);
+    }
+
+    /* records every phase of the timer, plus their sum as the 'total' phase */
+    public void record(String operation, PhaseTimer timer) {
+        long total = 0;
+        for (Map.Entry<String, Long> phase : timer.getPhases().entrySet()) {
+            record(operation, phase.getKey(), phase.getValue());
+            total += phase.getValue();
+        }
+        record(operation, TOTAL, total);
+    }
+
+    public Map<String, Map<String, LatencySummary>> summarize() {
+        Map<String, Map<String, LatencySummary>> summaries = new TreeMap<>();
+        for (Map.Entry<String, Map<String, LatencyHistogram>> operation : histograms.entrySet()) {
+            Map<String, LatencySummary> phases = new TreeMap<>();
+            for (Map.Entry<String, LatencyHistogram> phase : operation.getValue().entrySet()) {
+                phases.put(phase.getKey(), phase.getValue().summarize());
+            }
+            summaries.put(operation.getKey(), phases);
+        }
+        return summaries;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+}
@@ -0,0 +1,164 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.LoadReport;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Param;
+import com.ionoscloud.models.Response;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/*
+ * Calls one operation over and over with the same params, for a given duration, to measure the capacity
+ * of the sdk and the api.
+ *
+ * The params are bound once and every call goes through SdkService.performRequest, just like a regular
+ * call, but without retries, so that every 429 and 5xx shows up in the report. The workers either run
+ * back to back, or, with a target rate, take the next slot of a fixed schedule shared by all workers.
+ * Latencies are measured from the scheduled start of a request, so requests that had to wait for a free
+ * worker are reported with their waiting time.
+ */
+public class LoadGenerator {
+
+    public static final String EXCEPTION_STATUS = "exception";
+
+    private final Logger log = Logger.getLogger("load-generator");
+
+    private final SdkService sdkService;
+
+    public LoadGenerator(SdkService sdkService) {
+        this.sdkService = sdkService;
+    }
+
+    /* runs the input's operation at the target rate (requests per second, 0 for no pacing) */
+    public LoadReport run(Input input, double rate, int concurrency, long durationMillis)
+            throws ReflectiveOperationException, InterruptedException {
+        if (concurrency < 1 || durationMillis < 1 || rate < 0) {
+            throw new IllegalArgumentException("concurrency and duration must be positive, rate must not be negative");
+        }
+        if (input.getProduct() != null) {
+            throw new IllegalArgumentException("the load generator only runs the driver's own operations, "
+                    + "run it in the driver of product '" + input.getProduct() + "' instead");
+        }
+
+        Operation operation = sdkService.getOperationIndex().find(input.getOperation());
+        if (operation == null) {
+            throw new IllegalArgumentException("method " + input.getOperation() + " not found");
+        }
+
+        Method method = sdkService.getOperationIndex().getMethod(operation);
+        OperationInvoker invoker = sdkService
+                .getClient(input.getCredentials(), input.getTransport())
+                .getInvoker(method);
+
+        Map<String, Object> params = new HashMap<>();
+        if (input.getParams() != null) {
+            for (Param param : input.getParams()) {
+                params.put(param.getName(), param.getValue());
+            }
+        }
+        Object[] prm = ParameterBinder.of(method, operation.getParameterNames()).bind(params);
+
+        long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        AtomicLong slots = new AtomicLong();
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder errors = new LongAdder();
+
+        log.info("running " + operation.getName() + " for " + durationMillis + "ms with " + concurrency
+                + " workers" + (rate > 0 ? " at " + rate + " requests/s" : ""));
+
+        ExecutorService executor = BatchExecutor.newExecutor(concurrency, "load-generator");
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            executor.execute(() -> {
+                try {
+                    while (true) {
+                        long scheduled;
+                        if (interval > 0) {
+                            scheduled = start + slots.getAndIncrement() * interval;
+                            if (scheduled >= deadline) {
+                                break;
+                            }
+                            long wait = scheduled - System.nanoTime();
+                            if (wait > 0) {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            }
+                        } else {
+                            scheduled = System.nanoTime();
+                            if (scheduled >= deadline) {
+                                break;
+                            }
+                        }
+
+                        long callStart = System.nanoTime();
+                        String status;
+                        boolean failed;
+                        try {
+                            Response response = sdkService.performRequest(operation, invoker, prm, new PhaseTimer(),
+                                    null, RetryPolicy.NONE);
+                            Integer statusCode = response.getHttpResponse() == null ? null :
+                                    response.getHttpResponse().getStatusCode();
+                            status = statusCode == null ? EXCEPTION_STATUS : String.valueOf(statusCode);
+                            failed = response.getError() != null;
+                            response.release();
+                        } catch (Throwable e) {
+                            status = EXCEPTION_STATUS;
+                            failed = true;
+                        }
+
+                        long end = System.nanoTime();
+                        latency.record(end - scheduled);
+                        serviceTime.record(end - callStart);
+                        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                        if (failed) {
+                            errors.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Map<String, Long> statusCounts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> status : statuses.entrySet()) {
+            statusCounts.put(status.getKey(), status.getValue().sum());
+        }
+
+        return LoadReport
+                .builder()
+                .operation(operation.getName())
+                .targetRate(rate)
+                .concurrency(concurrency)
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .requests(latency.getCount())
+                .errors(errors.sum())
+                .throughput(latency.getCount() / (elapsed / 1e9))
+                .statuses(statusCounts)
+                .latency(latency.summarize())
+                .serviceTime(serviceTime.summarize())
+                .build();
+    }
+}
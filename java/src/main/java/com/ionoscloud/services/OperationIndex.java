@@ -0,0 +1,253 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ionoscloud.ApiCallback;
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.utils.JsonUtils;
+import com.thoughtworks.paranamer.AnnotationParanamer;
+import com.thoughtworks.paranamer.BytecodeReadingParanamer;
+import com.thoughtworks.paranamer.Paranamer;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.reflections.Reflections;
+import org.reflections.scanners.ResourcesScanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/*
+ * Maps every sdk operation name to the api class and *WithHttpInfo method implementing it.
+ *
+ * The index is generated at build time (see the generateOperationIndex task in build.gradle) and
+ * packaged next to this class, so that a call does not have to scan the classpath to find its
+ * method. When the resource is missing, e.g. when running from an IDE, the classpath is scanned once.
+ */
+public class OperationIndex {
+
+    public static final String RESOURCE_NAME = "operation-index.json";
+
+    private static final String BASE_PACKAGE_NAME = "com.ionoscloud.api";
+    private static final String METHOD_SUFFIX = "WithHttpInfo";
+    private static final String CALL_SUFFIX = "Call";
+
+    private static final Logger log = Logger.getLogger("operation-index");
+
+    private final Map<String, Operation> operations;
+    private final Map<String, Method> methods = new ConcurrentHashMap<>();
+
+    private OperationIndex(List<Operation> operations) {
+        Map<String, Operation> operationMap = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            operationMap.putIfAbsent(operation.getName(), operation);
+        }
+        this.operations = Collections.unmodifiableMap(operationMap);
+    }
+
+    public static OperationIndex of(List<Operation> operations) {
+        return new OperationIndex(operations);
+    }
+
+    public static OperationIndex load() {
+        try (InputStream in = OperationIndex.class.getResourceAsStream(RESOURCE_NAME)) {
+            if (in != null) {
+                return new OperationIndex(JsonUtils.MAPPER.readValue(in, new TypeReference<List<Operation>>() {}));
+            }
+        } catch (IOException e) {
+            log.warning("could not read " + RESOURCE_NAME + ": " + e.getMessage());
+        }
+
+        log.warning(RESOURCE_NAME + " not found, scanning " + BASE_PACKAGE_NAME + " for operations");
+        return new OperationIndex(scan());
+    }
+
+    public Operation find(String operation) {
+        return operations.get(operation);
+    }
+
+    public Collection<Operation> getOperations() {
+        return operations.values();
+    }
+
+    /* resolves and caches the api method of an operation */
+    public Method getMethod(Operation operation) throws ClassNotFoundException, NoSuchMethodException {
+        Method method = methods.get(operation.getName());
+        if (method != null) {
+            return method;
+        }
+
+        Class<?> apiClass = Class.forName(operation.getApiClass());
+        for (Method candidate : apiClass.getMethods()) {
+            if (candidate.getName().equals(operation.getMethod()) && hasParameters(candidate, operation)) {
+                methods.put(operation.getName(), candidate);
+                return candidate;
+            }
+        }
+
+        throw new NoSuchMethodException(operation.getApiClass() + "." + operation.getMethod() + operation.getParameterTypes());
+    }
+
+    /* compares the parameter types as well as their number, since an overload may take as many params */
+    private static boolean hasParameters(Method method, Operation operation) {
+        if (method.getParameterCount() != operation.getParameterNames().size()) {
+            return false;
+        }
+        /* an operation described without its types matches by the number of params alone */
+        if (operation.getParameterTypes() == null) {
+            return true;
+        }
+
+        Type[] types = method.getGenericParameterTypes();
+        if (types.length != operation.getParameterTypes().size()) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (!types[i].getTypeName().equals(operation.getParameterTypes().get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static List<Operation> scan() {
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .setScanners(new SubTypesScanner(false /* don't exclude Object.class */), new ResourcesScanner())
+                .setUrls(ClasspathHelper.forPackage(BASE_PACKAGE_NAME))
+                .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix(BASE_PACKAGE_NAME))));
+
+        List<Operation> operations = new ArrayList<>();
+        for (Class<?> apiClass : reflections.getSubTypesOf(Object.class)) {
+            operations.addAll(describe(apiClass));
+        }
+
+        operations.sort(Comparator.comparing(Operation::getName).thenComparing(Operation::getApiClass));
+        return operations;
+    }
+
+    /* describes the operations implemented by one api class */
+    public static List<Operation> describe(Class<?> apiClass) {
+        Paranamer paranamer = new AnnotationParanamer(new BytecodeReadingParanamer());
+        List<Operation> operations = new ArrayList<>();
+        ApiClient apiClient = new ApiClient();
+        Object api = null;
+        try {
+            api = apiClass.getConstructor(ApiClient.class).newInstance(apiClient);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.fine("could not create " + apiClass.getName() + ", using the operation names for the http methods");
+        }
+
+        for (Method method : apiClass.getMethods()) {
+            if (!method.getName().endsWith(METHOD_SUFFIX) || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+
+            List<String> parameterTypes = new ArrayList<>();
+            for (Type type : method.getGenericParameterTypes()) {
+                parameterTypes.add(type.getTypeName());
+            }
+
+            String name = method.getName().substring(0, method.getName().length() - METHOD_SUFFIX.length());
+            List<String> parameterNames = Arrays.asList(paranamer.lookupParameterNames(method));
+            Request request = api == null ? null : buildRequest(api, apiClass, name, method, parameterNames);
+
+            operations.add(
+                    Operation
+                            .builder()
+                            .name(name)
+                            .apiClass(apiClass.getName())
+                            .method(method.getName())
+                            .parameterNames(parameterNames)
+                            .parameterTypes(parameterTypes)
+                            .httpMethod(request != null ? request.method() : httpMethodFromName(name))
+                            .path(request != null ? pathTemplate(request.url(), apiClient.getBasePath()) : null)
+                            .build()
+            );
+        }
+
+        return operations;
+    }
+
+    /*
+     * Builds, but does not execute, the request of an operation through its *Call method, passing every
+     * String param as a {name} placeholder, so that the request's path is the operation's path template.
+     */
+    private static Request buildRequest(Object api, Class<?> apiClass, String name, Method method, List<String> parameterNames) {
+        Class<?>[] parameterTypes = Arrays.copyOf(method.getParameterTypes(), method.getParameterCount() + 1);
+        parameterTypes[method.getParameterCount()] = ApiCallback.class;
+
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            if (parameterTypes[i] == String.class) {
+                args[i] = "{" + parameterNames.get(i) + "}";
+            } else if (parameterTypes[i] == boolean.class) {
+                args[i] = false;
+            } else if (parameterTypes[i] == int.class) {
+                args[i] = 0;
+            } else if (parameterTypes[i] == long.class) {
+                args[i] = 0L;
+            }
+        }
+
+        try {
+            Call call = (Call) apiClass.getMethod(name + CALL_SUFFIX, parameterTypes).invoke(api, args);
+            return call.request();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.fine("could not build a request for " + name + ": " + e);
+            return null;
+        }
+    }
+
+    /* the decoded path of the url, without the path of the base path */
+    private static String pathTemplate(HttpUrl url, String basePath) {
+        List<String> segments = new ArrayList<>(url.pathSegments());
+        HttpUrl base = HttpUrl.parse(basePath);
+        if (base != null) {
+            for (String segment : base.pathSegments()) {
+                if (!segment.isEmpty() && !segments.isEmpty() && segments.get(0).equals(segment)) {
+                    segments.remove(0);
+                }
+            }
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    /* fallback for operations whose request cannot be built: the sdk names them after their http method */
+    private static String httpMethodFromName(String name) {
+        for (String httpMethod : new String[]{"Delete", "Post", "Put", "Patch"}) {
+            if (name.endsWith(httpMethod)) {
+                return httpMethod.toUpperCase(Locale.ROOT);
+            }
+        }
+        return "GET";
+    }
+
+    /* build time entry point: writes the index of the sdk on the classpath to the given file */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("usage: OperationIndex <output file>");
+        }
+
+        File output = new File(args[0]);
+        if (!output.getParentFile().isDirectory() && !output.getParentFile().mkdirs()) {
+            throw new IOException("could not create " + output.getParent());
+        }
+
+        List<Operation> operations = scan();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, operations);
+        log.info("wrote " + operations.size() + " operations to " + output);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ionoscloud.services;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/*
+ * Calls an sdk api method on a fixed api instance through a method handle compiled once, instead of
+ * going through Method.invoke on every call. Exceptions thrown by the sdk method are rethrown as is,
+ * not wrapped in an InvocationTargetException. The invoker also carries the rate limiter of the api
+ * client the api instance belongs to.
+ */
+public class OperationInvoker {
+
+    private final Method method;
+    private final Object api;
+    private final MethodHandle handle;
+    private final RateLimiter rateLimiter;
+
+    public OperationInvoker(Method method, Object api) throws IllegalAccessException {
+        this(method, api, null);
+    }
+
+    public OperationInvoker(Method method, Object api, RateLimiter rateLimiter) throws IllegalAccessException {
+        this.method = method;
+        this.api = api;
+        this.rateLimiter = rateLimiter;
+        this.handle = MethodHandles
+                .publicLookup()
+                .unreflect(method)
+                .bindTo(api)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Object getApi() {
+        return api;
+    }
+
+    /* the rate limiter of the invoker's api client, null if its calls are not throttled */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public Object invoke(Object[] args) throws Throwable {
+        return (Object) handle.invokeExact(args);
+    }
+}
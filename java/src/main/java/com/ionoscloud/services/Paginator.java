@@ -0,0 +1,198 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ionoscloud.models.Error;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.PageInfo;
+import com.ionoscloud.models.RawJson;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/*
+ * Fetches all pages of a list operation that takes 'offset' and 'limit' params.
+ *
+ * Up to 'concurrency' pages are requested at the same time, at consecutive offsets. Every page is handed
+ * to the page sink as soon as it arrives, so pages can arrive out of order; their 'page' field holds their
+ * offset. No further pages are requested once a page comes back with fewer items than the page size, or
+ * with an error. The returned summary response holds the totals, and the pages themselves when there
+ * is no sink; with a sink, pages are not kept once they are handed over.
+ *
+ * Every page is requested with the caller's params apart from 'offset' and 'limit'. Params the caller did
+ * not set, like 'depth', are left out, so the api's own defaults apply.
+ */
+public class Paginator {
+
+    public static final String OFFSET_PARAM = "offset";
+    public static final String LIMIT_PARAM = "limit";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_CONCURRENCY = 4;
+
+    private final Logger log = Logger.getLogger("paginator");
+
+    private final SdkService sdkService;
+
+    public Paginator(SdkService sdkService) {
+        this.sdkService = sdkService;
+    }
+
+    public static boolean supports(Operation operation) {
+        return operation.getParameterNames().contains(OFFSET_PARAM) && operation.getParameterNames().contains(LIMIT_PARAM);
+    }
+
+    public Response run(Input input, Operation operation, OperationInvoker invoker, ParameterBinder binder,
+                        Map<String, Object> params, Consumer<Response> pageSink) throws InterruptedException {
+        if (!supports(operation)) {
+            throw new IllegalArgumentException("operation " + operation.getName() + " does not support pagination");
+        }
+
+        int pageSize = input.getPageSize() != null ? input.getPageSize() :
+                params.get(LIMIT_PARAM) instanceof Number ? ((Number) params.get(LIMIT_PARAM)).intValue() : DEFAULT_PAGE_SIZE;
+        int concurrency = input.getConcurrency() == null || input.getConcurrency() < 1 ?
+                DEFAULT_CONCURRENCY : input.getConcurrency();
+        int start = params.get(OFFSET_PARAM) instanceof Number ? ((Number) params.get(OFFSET_PARAM)).intValue() : 0;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("'pageSize' must be positive");
+        }
+
+        /* an invalid selection or filter fails before the first page is requested */
+        ResultProjection.of(input);
+
+        Map<String, Object> pageParams = new HashMap<>(params);
+
+        ExecutorService executor = BatchExecutor.newExecutor(concurrency, "paginator");
+        Semaphore permits = new Semaphore(concurrency);
+        List<Response> pages = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger pageCount = new AtomicInteger();
+        AtomicInteger itemCount = new AtomicInteger();
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        Page end = new Page();
+
+        try {
+            for (int offset = start; ; offset += pageSize) {
+                permits.acquire();
+                if (end.reached()) {
+                    permits.release();
+                    break;
+                }
+
+                int pageOffset = offset;
+                requests.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Response page = fetch(input, operation, invoker, binder, pageParams, pageOffset, pageSize);
+                        boolean last = page.getError() != null || page.getPage().getItems() < pageSize;
+                        if (last) {
+                            end.reach(pageOffset, page.getError());
+                        }
+
+                        /* pages after the last one come back empty and are dropped */
+                        if (page.getPage().getItems() > 0 || page.getError() != null || pageOffset == start) {
+                            pageCount.incrementAndGet();
+                            itemCount.addAndGet(page.getPage().getItems());
+                            if (pageSink == null) {
+                                pages.add(page);
+                            } else {
+                                synchronized (pageSink) {
+                                    pageSink.accept(page);
+                                }
+                            }
+                        }
+                    } catch (Throwable e) {
+                        end.reach(pageOffset, Error.builder().message(e.getMessage()).build());
+                    } finally {
+                        permits.release();
+                    }
+                }, executor));
+            }
+
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        int items = itemCount.get();
+        log.info("fetched " + items + " items of " + operation.getName() + " in " + pageCount.get() + " pages");
+
+        Response.ResponseBuilder summary = Response
+                .builder()
+                .page(PageInfo.builder().offset(start).limit(pageSize).items(items).pages(pageCount.get()).build());
+        if (pageSink == null) {
+            List<Response> sorted = new ArrayList<>(pages);
+            sorted.sort(Comparator.comparing(page -> page.getPage().getOffset()));
+            summary.responses(sorted);
+        }
+        if (end.error != null) {
+            summary.error(Error.builder().message("page at offset " + end.offset + " failed: " + end.error.getMessage()).build());
+        }
+        return summary.build();
+    }
+
+    private Response fetch(Input input, Operation operation, OperationInvoker invoker, ParameterBinder binder,
+                           Map<String, Object> pageParams, int offset, int limit) throws Throwable {
+        Map<String, Object> params = new HashMap<>(pageParams);
+        params.put(OFFSET_PARAM, offset);
+        params.put(LIMIT_PARAM, limit);
+
+        PhaseTimer timer = new PhaseTimer();
+        ResultProjection projection = ResultProjection.of(input);
+        Response page = sdkService.performRequest(operation, invoker, binder.bind(params), timer, projection);
+        sdkService.getLatencyHistograms().record(operation.getName(), timer);
+
+        /* a page is short by the items the api returned, not by the ones left after the filter */
+        int items = page.getError() != null || page.getResult() == null ? 0 :
+                projection != null ? projection.getItems() : countItems((RawJson) page.getResult());
+        page.setPage(PageInfo.builder().offset(offset).limit(limit).items(items).build());
+        return page;
+    }
+
+    /* counts the elements of the top level 'items' array without building the list or reading all of a spilled page */
+    private static int countItems(RawJson json) throws IOException {
+        try (JsonParser parser = JsonUtils.MAPPER.getFactory().createParser(json.openReader())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("items".equals(name) && value == JsonToken.START_ARRAY) {
+                    int items = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                        items++;
+                    }
+                    return items;
+                }
+                parser.skipChildren();
+            }
+        }
+        return 0;
+    }
+
+    /* the first page that ended the list, i.e. came back short or failed */
+    private static class Page {
+        Integer offset;
+        Error error;
+
+        synchronized boolean reached() {
+            return offset != null;
+        }
+
+        synchronized void reach(int pageOffset, Error pageError) {
+            if (offset == null || pageOffset < offset) {
+                offset = pageOffset;
+                error = pageError;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.utils.JsonUtils;
+import com.thoughtworks.paranamer.AnnotationParanamer;
+import com.thoughtworks.paranamer.BytecodeReadingParanamer;
+import com.thoughtworks.paranamer.CachingParanamer;
+import com.thoughtworks.paranamer.Paranamer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+ * Turns input params into the argument list of one sdk method.
+ *
+ * A binder is built once per method: it knows the position, the name (and its capitalized variant) and
+ * a converter for every parameter. Maps and lists parsed from the input are converted into sdk models
+ * through a Gson tree, without serializing them to an intermediate json string first.
+ */
+public class ParameterBinder {
+
+    private static final Paranamer PARANAMER = new CachingParanamer(new AnnotationParanamer(new BytecodeReadingParanamer()));
+    private static final Map<Method, ParameterBinder> BINDERS = new ConcurrentHashMap<>();
+
+    private final String[] names;
+    private final String[] capitalizedNames;
+    private final Type[] types;
+    private final Function<Object, Object>[] converters;
+
+    @SuppressWarnings("unchecked")
+    private ParameterBinder(Method method, String[] names) {
+        this.names = names;
+        this.capitalizedNames = new String[names.length];
+        this.types = method.getGenericParameterTypes();
+        this.converters = new Function[names.length];
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < names.length; i++) {
+            capitalizedNames[i] = StringUtils.capitalize(names[i]);
+            converters[i] = converterFor(parameterTypes[i]);
+        }
+    }
+
+    public static ParameterBinder of(Method method) {
+        return BINDERS.computeIfAbsent(method, m -> new ParameterBinder(m, PARANAMER.lookupParameterNames(m)));
+    }
+
+    /* uses parameter names known upfront, e.g. from the operation index, instead of reading them from bytecode */
+    public static ParameterBinder of(Method method, List<String> parameterNames) {
+        return BINDERS.computeIfAbsent(method, m -> new ParameterBinder(m, parameterNames.toArray(new String[0])));
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public Object[] bind(Map<String, Object> params) {
+        Object[] args = new Object[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            Object value = params.get(names[i]);
+            if (value == null) {
+                value = params.get(capitalizedNames[i]);
+            }
+
+            if (value == null) {
+                continue;
+            }
+
+            if (value instanceof Map || value instanceof List) {
+                args[i] = JsonUtils.GSON.fromJson(JsonUtils.GSON.toJsonTree(value), types[i]);
+            } else {
+                args[i] = converters[i].apply(value);
+            }
+        }
+
+        return args;
+    }
+
+    private static Function<Object, Object> converterFor(Class<?> type) {
+        if (type == UUID.class) {
+            return value -> value instanceof String ? UUID.fromString((String) value) : JsonUtils.GSON.fromJson(JsonUtils.GSON.toJsonTree(value), UUID.class);
+        } else if (type == java.time.OffsetDateTime.class) {
+            return value -> java.time.OffsetDateTime.parse((String) value);
+        } else if (type == org.threeten.bp.OffsetDateTime.class) {
+            return value -> org.threeten.bp.OffsetDateTime.parse((String) value);
+        } else if (type == Long.class || type == long.class) {
+            return value -> value instanceof Number ? ((Number) value).longValue() : value;
+        } else if (type == Integer.class || type == int.class) {
+            return value -> value instanceof Number ? ((Number) value).intValue() : value;
+        } else if (type == Float.class || type == float.class) {
+            return value -> value instanceof Number ? ((Number) value).floatValue() : value;
+        } else if (type == Double.class || type == double.class) {
+            return value -> value instanceof Number ? ((Number) value).doubleValue() : value;
+        } else if (type == BigDecimal.class) {
+            return value -> value instanceof Number ? new BigDecimal(value.toString()) : value;
+        }
+
+        return Function.identity();
+    }
+}
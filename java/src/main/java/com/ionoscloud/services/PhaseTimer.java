@@ -0,0 +1,46 @@
+package com.ionoscloud.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Records how long each phase of a call takes. Every mark ends the current phase and starts the next
+ * one; time that should not count towards any phase, e.g. debug logging, is skipped with restart().
+ */
+public class PhaseTimer {
+
+    public static final String READ = "read";
+    public static final String VALIDATE = "validate";
+    public static final String LOOKUP = "lookup";
+    public static final String BIND = "bind";
+    public static final String INVOKE = "invoke";
+    public static final String CONVERT = "convert";
+    public static final String WRITE = "write";
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long last = System.nanoTime();
+
+    /* starts the next phase now, without recording the time since the last mark */
+    public void restart() {
+        last = System.nanoTime();
+    }
+
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        phases.merge(phase, now - last, Long::sum);
+        last = now;
+    }
+
+    /* phase durations in nanoseconds */
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    public Map<String, Double> toMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            millis.put(phase.getKey(), phase.getValue() / 1e6);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ionoscloud.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.function.Consumer;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+
+/*
+ * A driver fat jar built for another sdk product (see build.sh), loaded into a class loader of its own.
+ *
+ * The class loader's parent is the platform class loader, so the product's sdk, its gson and okhttp, and
+ * its copy of the driver do not see the classes of this driver, and both can use the same class names.
+ * The two drivers only exchange strings and jdk types, through the static bridge methods of the product's
+ * Main class: execute(String, Consumer<Reader>) and warmUp(). Responses and pages are passed as readers
+ * of their json (see Response.toTransferJson), so large results stay in their temp files.
+ */
+public class ProductDriver {
+
+    private static final String EXECUTE_METHOD = "execute";
+    private static final String WARM_UP_METHOD = "warmUp";
+
+    private final Logger log = Logger.getLogger("product-driver");
+
+    private final String name;
+    private final URLClassLoader classLoader;
+    private final MethodHandle execute;
+    private final MethodHandle warmUp;
+
+    public ProductDriver(String name, File jar) throws IOException, ReflectiveOperationException {
+        this.name = name;
+
+        String mainClassName;
+        try (JarFile jarFile = new JarFile(jar)) {
+            mainClassName = jarFile.getManifest() == null ? null :
+                    jarFile.getManifest().getMainAttributes().getValue("Main-Class");
+        }
+        if (mainClassName == null) {
+            throw new IllegalArgumentException("driver jar " + jar + " of product " + name + " has no Main-Class");
+        }
+
+        this.classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, ClassLoader.getSystemClassLoader().getParent());
+        Class<?> mainClass = Class.forName(mainClassName, true, classLoader);
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.execute = lookup.findStatic(mainClass, EXECUTE_METHOD, MethodType.methodType(Reader.class, String.class, Consumer.class));
+        this.warmUp = lookup.findStatic(mainClass, WARM_UP_METHOD, MethodType.methodType(void.class));
+
+        log.info("loaded product " + name + " from " + jar + " (" + mainClassName + ")");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /*
+     * Runs an input json in the product's driver and returns a reader of its response json; pages go to the
+     * page sink. The caller closes the reader, the sink is done with a page's reader once it returns.
+     */
+    public Reader execute(String input, Consumer<Reader> pageSink) throws Throwable {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            return (Reader) execute.invokeExact(input, pageSink);
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    public void warmUp() throws Throwable {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            warmUp.invokeExact();
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+}
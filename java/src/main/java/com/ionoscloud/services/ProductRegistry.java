@@ -0,0 +1,116 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/*
+ * The product drivers this driver dispatches to, so that one warm jvm can serve several sdk products.
+ *
+ * Products are configured in IONOS_DRIVER_PRODUCTS as a comma separated list of <name>=<driver jar>, e.g.
+ * "dbaas-postgres=/drivers/dbaas-postgres.jar,auth=/drivers/auth.jar", where every jar is a driver fat jar
+ * built for that product. An input with "product": "<name>" is run by that product's driver, with its own
+ * operation index, api client and credentials check; inputs without a product are run by this driver.
+ * A product's jar is loaded on its first input, or by the warm up.
+ */
+public class ProductRegistry {
+
+    public static final String PRODUCTS_ENV_VAR = "IONOS_DRIVER_PRODUCTS";
+
+    private final Logger log = Logger.getLogger("product-registry");
+
+    private final Map<String, File> jars;
+    private final Map<String, ProductDriver> drivers = new HashMap<>();
+
+    public ProductRegistry(Map<String, File> jars) {
+        this.jars = Collections.unmodifiableMap(new LinkedHashMap<>(jars));
+    }
+
+    /* returns the products of the env, or null if there are none */
+    public static ProductRegistry fromEnv() {
+        String products = System.getenv(PRODUCTS_ENV_VAR);
+        if (products == null || products.trim().isEmpty()) {
+            return null;
+        }
+
+        Map<String, File> jars = new LinkedHashMap<>();
+        for (String product : products.split(",")) {
+            if (product.trim().isEmpty()) {
+                continue;
+            }
+
+            int separator = product.indexOf('=');
+            if (separator < 1 || separator == product.length() - 1) {
+                throw new IllegalArgumentException(PRODUCTS_ENV_VAR + " entry '" + product.trim() + "' is not <name>=<driver jar>");
+            }
+            jars.put(product.substring(0, separator).trim(), new File(product.substring(separator + 1).trim()));
+        }
+
+        return new ProductRegistry(jars);
+    }
+
+    public Set<String> getNames() {
+        return jars.keySet();
+    }
+
+    public synchronized ProductDriver get(String name) throws IOException, ReflectiveOperationException {
+        ProductDriver driver = drivers.get(name);
+        if (driver != null) {
+            return driver;
+        }
+
+        File jar = jars.get(name);
+        if (jar == null) {
+            throw new IllegalArgumentException("unknown product '" + name + "', configured products: " + jars.keySet());
+        }
+
+        driver = new ProductDriver(name, jar);
+        drivers.put(name, driver);
+        return driver;
+    }
+
+    /* loads every product and warms up its driver */
+    public void warmUp() {
+        for (String name : jars.keySet()) {
+            try {
+                get(name).warmUp();
+            } catch (Throwable e) {
+                log.warning("could not warm up product " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Runs the input in its product's driver. The input is passed on as json, without its product, and the
+     * response and pages come back as json, their results kept as raw json, spilled to a file if large.
+     */
+    public Response run(Input input, Consumer<Response> pageSink) throws Throwable {
+        ProductDriver driver = get(input.getProduct());
+
+        /* the input itself is left as is, the product is only removed from its json */
+        ObjectNode node = JsonUtils.MAPPER.valueToTree(input);
+        node.remove("product");
+        String json = JsonUtils.MAPPER.writeValueAsString(node);
+
+        Consumer<Reader> pages = pageSink == null ? null : page -> {
+            try {
+                pageSink.accept(Response.fromTransferJson(page));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try (Reader response = driver.execute(json, pages)) {
+            return Response.fromTransferJson(response);
+        }
+    }
+}
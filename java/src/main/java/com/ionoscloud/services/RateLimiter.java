@@ -0,0 +1,143 @@
+package com.ionoscloud.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Token bucket shared by all calls of one api client, sized from the rate limit headers of the api.
+ *
+ * X-RateLimit-Limit gives the requests per minute, X-RateLimit-Burst the bucket size and
+ * X-RateLimit-Remaining the tokens left. Until the api has sent these headers the bucket lets every
+ * call through. After a 429 the whole bucket is paused, so that the other calls back off too instead of
+ * piling up more 429s.
+ *
+ * Throttling is off unless IONOS_DRIVER_RATE_LIMIT is set, either to 'auto' for the rate of the headers,
+ * or to a fixed number of requests per second that ignores them.
+ */
+public class RateLimiter {
+
+    public static final String RATE_LIMIT_ENV_VAR = "IONOS_DRIVER_RATE_LIMIT";
+    public static final String AUTO_RATE_LIMIT = "auto";
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String BURST_HEADER = "X-RateLimit-Burst";
+
+    private static final long LIMIT_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean fixed;
+    /* tokens per nanosecond, 0 while the rate is unknown */
+    private double rate;
+    private double capacity;
+    private double tokens;
+    private long updatedAt = System.nanoTime();
+    private long pausedUntil;
+
+    /* a bucket sized by the rate limit headers of the api */
+    public RateLimiter() {
+        this.fixed = false;
+    }
+
+    /* a bucket of a fixed rate, holding up to a second of requests */
+    public RateLimiter(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("the rate limit must be positive");
+        }
+        this.fixed = true;
+        this.rate = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, requestsPerSecond);
+        this.tokens = capacity;
+    }
+
+    /* returns the rate limiter configured in the env, or null if throttling is off */
+    public static RateLimiter fromEnv() {
+        String limit = System.getenv(RATE_LIMIT_ENV_VAR);
+        if (limit == null || limit.trim().isEmpty()) {
+            return null;
+        }
+        return AUTO_RATE_LIMIT.equalsIgnoreCase(limit.trim()) ? new RateLimiter() : new RateLimiter(Double.parseDouble(limit.trim()));
+    }
+
+    /* takes a token, waiting until one is available; returns the nanoseconds waited */
+    public long acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return wait;
+    }
+
+    /* takes a token, possibly one that is only refilled in the future, and returns how long to wait for it */
+    private long reserve() {
+        return reserve(System.nanoTime());
+    }
+
+    /* the same at the given System.nanoTime() */
+    synchronized long reserve(long now) {
+        long wait = Math.max(0, pausedUntil - now);
+        if (rate == 0) {
+            return wait;
+        }
+
+        refill(now);
+        tokens -= 1;
+        if (tokens < 0) {
+            wait = Math.max(wait, (long) (-tokens / rate));
+        }
+        return wait;
+    }
+
+    /* stops handing out tokens for the given time, e.g. the Retry-After of a 429 */
+    public synchronized void pause(long nanos) {
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + nanos);
+    }
+
+    public synchronized void update(Map<String, List<String>> headers) {
+        if (fixed || headers == null) {
+            return;
+        }
+
+        Double limit = header(headers, LIMIT_HEADER);
+        if (limit == null || limit <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        boolean known = rate > 0;
+        refill(now);
+
+        rate = limit / LIMIT_WINDOW_NANOS;
+        Double burst = header(headers, BURST_HEADER);
+        capacity = burst != null && burst > 0 ? burst : Math.max(1, limit / 60);
+        if (!known) {
+            tokens = capacity;
+        }
+
+        /* the api knows about calls from other clients of the same account, so the lower count wins */
+        Double remaining = header(headers, REMAINING_HEADER);
+        if (remaining != null) {
+            tokens = Math.min(tokens, remaining);
+        }
+        tokens = Math.min(tokens, capacity);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - updatedAt) * rate);
+        updatedAt = now;
+    }
+
+    /* header names are case insensitive, and okhttp hands them out in lower case */
+    private static Double header(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                try {
+                    return Double.parseDouble(header.getValue().get(0).trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
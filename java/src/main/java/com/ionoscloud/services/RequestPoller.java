@@ -0,0 +1,317 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.models.Credentials;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Param;
+import com.ionoscloud.models.RequestState;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/*
+ * Waits for any number of api requests at once, polling their status from a single scheduler thread.
+ *
+ * A request is polled as soon as it is submitted, so one that is already done costs no wait. After that,
+ * every waiter has its own polling interval, which starts at the initial interval and backs off towards
+ * the max interval: steeply while the request is still queued, since it has not started yet, and more
+ * gently once it is running and may finish any moment. Waiters that are due at the same time are checked
+ * with one requestsGet call where the api provides it, and the remaining ones with concurrent
+ * requestsStatusGet calls. A failed status call is logged and the waiter polls again at its next
+ * interval. A waiter's future completes as soon as its request is done, has failed or its timeout has
+ * passed.
+ */
+public class RequestPoller {
+
+    public static final String STATUS_OPERATION = "requestsStatusGet";
+    public static final String LIST_OPERATION = "requestsGet";
+
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+
+    private static final double QUEUED_BACKOFF = 2.0;
+    private static final double RUNNING_BACKOFF = 1.5;
+    private static final int LIST_DEPTH = 2;
+    private static final int MIN_LIST_LIMIT = 50;
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+    /* requestsStatusGet calls of one tick running at the same time */
+    private static final int STATUS_CONCURRENCY = 8;
+
+    /* waiters due within this window are checked in the same tick */
+    private static final long TICK_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Logger log = Logger.getLogger("request-poller");
+
+    private final SdkService sdkService;
+    private final boolean listSupported;
+    /* credentials of the polled requests' client, null for the service's own client */
+    private final Credentials credentials;
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final ScheduledThreadPoolExecutor scheduler = newScheduler();
+    private final ThreadPoolExecutor statusExecutor = newStatusExecutor();
+
+    private ScheduledFuture<?> nextTick;
+    private long nextTickAt;
+
+    public RequestPoller(SdkService sdkService, boolean listSupported) {
+        this(sdkService, listSupported, null);
+    }
+
+    public RequestPoller(SdkService sdkService, boolean listSupported, Credentials credentials) {
+        this.sdkService = sdkService;
+        this.listSupported = listSupported;
+        this.credentials = credentials;
+    }
+
+    public CompletableFuture<RequestState> submit(String requestId, long timeoutMillis, long initialIntervalMillis,
+                                                  long maxIntervalMillis) {
+        Waiter waiter = new Waiter(requestId, timeoutMillis, initialIntervalMillis, maxIntervalMillis);
+
+        synchronized (this) {
+            waiters.add(waiter);
+            scheduleTick(waiter.nextPoll);
+        }
+
+        return waiter.future;
+    }
+
+    private synchronized void scheduleTick(long at) {
+        if (nextTick != null && !nextTick.isDone() && nextTickAt <= at) {
+            return;
+        }
+        if (nextTick != null) {
+            nextTick.cancel(false);
+        }
+
+        nextTickAt = at;
+        nextTick = scheduler.schedule(this::tick, Math.max(0, at - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        List<Waiter> due = new ArrayList<>();
+
+        synchronized (this) {
+            /* this is the pending tick, so the next one can be scheduled */
+            nextTick = null;
+            for (Waiter waiter : waiters) {
+                if (waiter.nextPoll - TICK_SLACK_NANOS <= now) {
+                    due.add(waiter);
+                }
+            }
+        }
+
+        Set<String> requestIds = new LinkedHashSet<>();
+        for (Waiter waiter : due) {
+            requestIds.add(waiter.requestId);
+        }
+
+        Map<String, JsonNode> statuses = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+
+        if (listSupported && requestIds.size() > 1) {
+            try {
+                statuses.putAll(listStatuses(requestIds));
+            } catch (Throwable e) {
+                log.warning(LIST_OPERATION + " failed, falling back to " + STATUS_OPERATION + ": " + e.getMessage());
+            }
+        }
+
+        Map<String, CompletableFuture<JsonNode>> calls = new HashMap<>();
+        for (String requestId : requestIds) {
+            if (!statuses.containsKey(requestId)) {
+                calls.put(requestId, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return getStatus(requestId);
+                    } catch (Throwable e) {
+                        throw new CompletionException(e);
+                    }
+                }, statusExecutor));
+            }
+        }
+        for (Map.Entry<String, CompletableFuture<JsonNode>> call : calls.entrySet()) {
+            try {
+                statuses.put(call.getKey(), call.getValue().join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warning("polling status of request " + call.getKey() + " failed, polling again: " + cause.getMessage());
+                errors.put(call.getKey(), cause.getMessage());
+            }
+        }
+
+        now = System.nanoTime();
+        for (Waiter waiter : due) {
+            if (errors.containsKey(waiter.requestId)) {
+                waiter.failed(errors.get(waiter.requestId), now);
+            } else {
+                waiter.update(statuses.get(waiter.requestId), now);
+            }
+        }
+
+        synchronized (this) {
+            waiters.removeIf(waiter -> waiter.future.isDone());
+
+            long next = Long.MAX_VALUE;
+            for (Waiter waiter : waiters) {
+                next = Math.min(next, waiter.nextPoll);
+            }
+            if (next != Long.MAX_VALUE) {
+                scheduleTick(next);
+            }
+        }
+    }
+
+    /* returns the status metadata of a single request: {"status": ..., "message": ...} */
+    private JsonNode getStatus(String requestId) throws Throwable {
+        Response response = sdkService.run(input(STATUS_OPERATION, "requestId", requestId));
+        if (response.getError() != null) {
+            throw new IllegalStateException(response.getError().getMessage());
+        }
+
+        try {
+            return JsonUtils.MAPPER.readTree(response.getResult().toString()).path("metadata");
+        } finally {
+            response.release();
+        }
+    }
+
+    /* looks up the status metadata of several requests with one call; requests not listed are left out */
+    private Map<String, JsonNode> listStatuses(Set<String> requestIds) throws Throwable {
+        Input input = input(LIST_OPERATION, "depth", LIST_DEPTH);
+        input.getParams().add(param("limit", Math.max(MIN_LIST_LIMIT, requestIds.size() * 2)));
+
+        Response response = sdkService.run(input);
+        if (response.getError() != null) {
+            throw new IllegalStateException(response.getError().getMessage());
+        }
+
+        Map<String, JsonNode> statuses = new HashMap<>();
+        JsonNode items;
+        try {
+            items = JsonUtils.MAPPER.readTree(response.getResult().toString()).path("items");
+        } finally {
+            response.release();
+        }
+
+        for (JsonNode item : items) {
+            String requestId = item.path("id").asText();
+            JsonNode status = item.path("metadata").path("requestStatus").path("metadata");
+            if (requestIds.contains(requestId) && status.hasNonNull("status")) {
+                statuses.put(requestId, status);
+            }
+        }
+
+        return statuses;
+    }
+
+    /* the scheduler thread ends when there is nothing to poll, so idle pollers of pooled clients cost nothing */
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "request-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setKeepAliveTime(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /* runs the status calls of a tick, its threads end when there is nothing to poll like the scheduler's */
+    private static ThreadPoolExecutor newStatusExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(STATUS_CONCURRENCY, STATUS_CONCURRENCY,
+                IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "request-poller-status");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private Input input(String operation, String name, Object value) {
+        Input input = new Input();
+        input.setOperation(operation);
+        input.setCredentials(credentials);
+        input.setParams(new ArrayList<>(Collections.singletonList(param(name, value))));
+        return input;
+    }
+
+    private static Param param(String name, Object value) {
+        Param param = new Param();
+        param.setName(name);
+        param.setValue(value);
+        return param;
+    }
+
+    private static class Waiter {
+        final String requestId;
+        final CompletableFuture<RequestState> future = new CompletableFuture<>();
+        final long startedAt = System.nanoTime();
+        final long deadline;
+        final long maxInterval;
+        long interval;
+        long nextPoll;
+        int polls;
+
+        Waiter(String requestId, long timeoutMillis, long initialIntervalMillis, long maxIntervalMillis) {
+            this.requestId = requestId;
+            this.deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            this.interval = TimeUnit.MILLISECONDS.toNanos(initialIntervalMillis);
+            this.maxInterval = Math.max(interval, TimeUnit.MILLISECONDS.toNanos(maxIntervalMillis));
+            this.nextPoll = startedAt;
+        }
+
+        void update(JsonNode status, long now) {
+            polls++;
+            String state = status.path("status").asText();
+            String message = status.path("message").asText(null);
+
+            if (STATUS_DONE.equals(state) || STATUS_FAILED.equals(state)) {
+                complete(state, message, now);
+                return;
+            }
+            if (now >= deadline) {
+                complete(STATUS_TIMEOUT, "timed out waiting for request " + requestId + " (last status: " + state + ")", now);
+                return;
+            }
+
+            backOff(STATUS_QUEUED.equals(state) ? QUEUED_BACKOFF : RUNNING_BACKOFF, now);
+        }
+
+        /* the status could not be read, so the waiter polls again unless its timeout has passed */
+        void failed(String error, long now) {
+            polls++;
+            if (now >= deadline) {
+                complete(STATUS_TIMEOUT, "timed out waiting for request " + requestId + " (last error: " + error + ")", now);
+                return;
+            }
+
+            backOff(RUNNING_BACKOFF, now);
+        }
+
+        /* waits for the current interval, and grows the one after it */
+        private void backOff(double backoff, long now) {
+            nextPoll = Math.min(now + interval, deadline);
+            interval = Math.min(maxInterval, (long) (interval * backoff));
+        }
+
+        void complete(String state, String message, long now) {
+            future.complete(
+                    RequestState
+                            .builder()
+                            .requestId(requestId)
+                            .status(state)
+                            .message(message)
+                            .polls(polls)
+                            .durationMs(TimeUnit.NANOSECONDS.toMillis(now - startedAt))
+                            .build()
+            );
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.CacheStats;
+import com.ionoscloud.models.Operation;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Caches the api responses of GET operations, keyed by the client and the bound params of the call, for
+ * long running driver modes that read the same resources over and over.
+ *
+ * The cache is off unless IONOS_DRIVER_CACHE_SIZE sets its maximum number of entries; the least recently
+ * used entry is evicted first. An entry is served without a request for IONOS_DRIVER_CACHE_TTL_MS
+ * (default 30000). After that, an entry with an ETag is revalidated with If-None-Match, and a 304 serves
+ * it for another ttl; an entry without one is fetched again.
+ *
+ * A call of an operation that is not a GET drops every entry whose resource path is on the same branch as
+ * its own, e.g. a PUT on /datacenters/1/servers/2 drops /datacenters, /datacenters/1/servers and
+ * /datacenters/1/servers/2/nics, since list and depth responses embed their children. Request statuses
+ * are never cached, so waiting for a request always sees its progress.
+ *
+ * Every invalidation starts a new generation of the cache. A GET takes the generation when it starts, and
+ * its response is only stored if no invalidation happened while it was running, so a GET that raced a
+ * mutation of the same branch cannot put back what the mutation just dropped.
+ */
+public class ResponseCache implements Interceptor {
+
+    public static final String SIZE_ENV_VAR = "IONOS_DRIVER_CACHE_SIZE";
+    public static final String TTL_ENV_VAR = "IONOS_DRIVER_CACHE_TTL_MS";
+
+    public static final String HIT = "hit";
+    public static final String REVALIDATED = "revalidated";
+    public static final String MISS = "miss";
+
+    public static final int NOT_MODIFIED = 304;
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    private static final long DEFAULT_TTL_MILLIS = 30000;
+    private static final String REQUESTS_PATH = "/requests";
+    private static final String REQUESTS_OPERATION_PREFIX = "requests";
+    /* segment of a path param whose value is unknown, matches any segment */
+    private static final String ANY_SEGMENT = "*";
+
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    /* number of invalidations so far */
+    private long generation;
+
+    /* etag to revalidate with, set around the api call on the calling thread */
+    private final ThreadLocal<String> ifNoneMatch = new ThreadLocal<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ResponseCache(int maxSize, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /* returns the cache configured in the env, or null if caching is off */
+    public static ResponseCache fromEnv() {
+        String size = System.getenv(SIZE_ENV_VAR);
+        if (size == null || size.trim().isEmpty() || Integer.parseInt(size.trim()) < 1) {
+            return null;
+        }
+
+        String ttl = System.getenv(TTL_ENV_VAR);
+        return new ResponseCache(
+                Integer.parseInt(size.trim()),
+                ttl == null || ttl.trim().isEmpty() ? DEFAULT_TTL_MILLIS : Long.parseLong(ttl.trim())
+        );
+    }
+
+    /* an entry without a known path is dropped by any mutation */
+    public static boolean isCacheable(Operation operation) {
+        return "GET".equals(operation.getHttpMethod()) && !operation.getName().startsWith(REQUESTS_OPERATION_PREFIX)
+                && (operation.getPath() == null || !operation.getPath().startsWith(REQUESTS_PATH));
+    }
+
+    /* returns the entry of the call, fresh or with an etag to revalidate, or null if it has to be fetched */
+    public synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isFresh() && entry.etag == null) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /* the generation to pass to put for a call that starts now */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /* stores the response of a call that started at the given generation, unless an invalidation came since */
+    public synchronized void put(Key key, Operation operation, Object[] prm, ApiResponse<?> response, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        entries.put(key, new Entry(response, etag(response.getHeaders()), resourcePath(operation, prm), ttlNanos));
+    }
+
+    /* counts a call by how it was served: HIT, REVALIDATED or MISS */
+    public void count(String status) {
+        if (HIT.equals(status)) {
+            hits.incrementAndGet();
+        } else if (REVALIDATED.equals(status)) {
+            revalidations.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+    }
+
+    /* the api confirmed a stale entry with a 304, so it is fresh again */
+    public void refresh(Entry entry) {
+        entry.storedAt = System.nanoTime();
+    }
+
+    /* sets the etag sent with the api calls of this thread, null for none */
+    public void setIfNoneMatch(String etag) {
+        if (etag == null) {
+            ifNoneMatch.remove();
+        } else {
+            ifNoneMatch.set(etag);
+        }
+    }
+
+    /* drops the entries on the branch of a mutated resource, or all entries if its path is unknown */
+    public synchronized void invalidate(Operation operation, Object[] prm) {
+        generation++;
+        if (operation.getPath() == null) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            return;
+        }
+
+        List<String> path = resourcePath(operation, prm);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (onSameBranch(path, iterator.next().path)) {
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized CacheStats getStats(boolean reset) {
+        CacheStats stats = CacheStats
+                .builder()
+                .hits(hits.get())
+                .revalidations(revalidations.get())
+                .misses(misses.get())
+                .invalidations(invalidations.get())
+                .entries(entries.size())
+                .build();
+
+        if (reset) {
+            hits.set(0);
+            revalidations.set(0);
+            misses.set(0);
+            invalidations.set(0);
+        }
+        return stats;
+    }
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+        String etag = ifNoneMatch.get();
+        Request request = chain.request();
+
+        if (etag != null && "GET".equals(request.method())) {
+            request = request.newBuilder().header(IF_NONE_MATCH_HEADER, etag).build();
+        }
+        return chain.proceed(request);
+    }
+
+    /* the path of the operation with the params of the call in place of its path params */
+    static List<String> resourcePath(Operation operation, Object[] prm) {
+        List<String> path = new ArrayList<>();
+        if (operation.getPath() == null) {
+            return path;
+        }
+
+        for (String segment : operation.getPath().split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                int index = operation.getParameterNames().indexOf(segment.substring(1, segment.length() - 1));
+                segment = index < 0 || prm[index] == null ? ANY_SEGMENT : String.valueOf(prm[index]);
+            }
+            path.add(segment);
+        }
+        return path;
+    }
+
+    /* true if one path is the other or one of its ancestors */
+    static boolean onSameBranch(List<String> path, List<String> other) {
+        for (int i = 0; i < Math.min(path.size(), other.size()); i++) {
+            if (!path.get(i).equals(other.get(i)) && !ANY_SEGMENT.equals(path.get(i)) && !ANY_SEGMENT.equals(other.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String etag(Map<String, List<String>> headers) {
+        if (headers == null) {
+            return null;
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (ETAG_HEADER.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /* a call: the invoker stands for the client and api method, the params are compared as json */
+    public static final class Key {
+        private final OperationInvoker invoker;
+        private final String params;
+
+        public Key(OperationInvoker invoker, String params) {
+            this.invoker = invoker;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).invoker == invoker && ((Key) other).params.equals(params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(invoker) + params.hashCode();
+        }
+    }
+
+    public static final class Entry {
+        private final ApiResponse<?> response;
+        private final String etag;
+        private final List<String> path;
+        private final long ttlNanos;
+        private volatile long storedAt = System.nanoTime();
+
+        Entry(ApiResponse<?> response, String etag, List<String> path, long ttlNanos) {
+            this.response = response;
+            this.etag = etag;
+            this.path = path;
+            this.ttlNanos = ttlNanos;
+        }
+
+        public ApiResponse<?> getResponse() {
+            return response;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - storedAt < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.ionoscloud.services;
+
+import com.google.gson.stream.JsonWriter;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Selects the fields and filters the items of an sdk result while gson serializes it, so that only the
+ * selected parts of the result are ever written into the response json.
+ *
+ * 'select' holds dot separated paths from the root of the result, e.g. ["items.id", "items.properties.name"].
+ * Arrays on the way are passed through, so a path applies to every element of an array. Only the selected
+ * fields, and the objects and arrays leading to them, are written.
+ *
+ * 'filter' is an expression of the form <path> <operator> <value>, e.g. "properties.name == 'web'". It keeps
+ * the items of a list, i.e. of the result's 'items' array or of the result itself if it is an array, whose
+ * value at the path (relative to the item) matches. The operators are ==, !=, ^= (starts with) and *=
+ * (contains); the value is a quoted string, a number, true, false or null. The filtered field does not have
+ * to be selected. Every item is buffered until it is complete, since its field may come last.
+ *
+ * A projection counts the items of the list it converted, before filtering, so every call uses its own.
+ */
+public class ResultProjection {
+
+    private static final Pattern FILTER = Pattern.compile("^\\s*([\\w$-]+(?:\\.[\\w$-]+)*)\\s*(==|!=|\\^=|\\*=)\\s*(.+?)\\s*$");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+    private static final String ITEMS = "items";
+
+    /* the selection of a field: a node that selects all of it, or the selected fields within it */
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean all;
+
+        Node child(String name) {
+            return all ? this : children.get(name);
+        }
+    }
+
+    private static final Node ALL = new Node();
+
+    static {
+        ALL.all = true;
+    }
+
+    private final Node selection;
+    private final String[] filterPath;
+    private final String filterOperator;
+    private final String filterValue;
+
+    private int items;
+
+    public ResultProjection(List<String> select, String filter) {
+        this.selection = select == null || select.isEmpty() ? ALL : compile(select);
+
+        if (filter == null || filter.trim().isEmpty()) {
+            this.filterPath = null;
+            this.filterOperator = null;
+            this.filterValue = null;
+            return;
+        }
+
+        Matcher matcher = FILTER.matcher(filter);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("invalid filter '" + filter + "', expected <path> <==|!=|^=|*=> <value>");
+        }
+        this.filterPath = matcher.group(1).split("\\.");
+        this.filterOperator = matcher.group(2);
+        this.filterValue = literal(matcher.group(3), filter);
+    }
+
+    /* returns the projection of the input, or null if it selects and filters nothing */
+    public static ResultProjection of(Input input) {
+        if ((input.getSelect() == null || input.getSelect().isEmpty())
+                && (input.getFilter() == null || input.getFilter().trim().isEmpty())) {
+            return null;
+        }
+        return new ResultProjection(input.getSelect(), input.getFilter());
+    }
+
+    /* number of list items in the last converted result, including the ones filtered out */
+    public int getItems() {
+        return items;
+    }
+
+    /* serializes the sdk data like JsonUtils.GSON.toJson(data), writing only the selected fields and items */
+    public String toJson(Object data) {
+        StringWriter json = new StringWriter();
+        toJson(data, json);
+        return json.toString();
+    }
+
+    public void toJson(Object data, Writer out) {
+        items = 0;
+        if (data == null) {
+            JsonUtils.GSON.toJson(null, Object.class, out);
+            return;
+        }
+
+        JsonUtils.GSON.toJson(data, data.getClass(), new ProjectingWriter(out));
+    }
+
+    private static Node compile(List<String> select) {
+        Node root = new Node();
+        for (String path : select) {
+            if (path == null || path.trim().isEmpty()) {
+                throw new IllegalArgumentException("'select' paths must not be blank");
+            }
+
+            Node node = root;
+            for (String name : path.trim().split("\\.")) {
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("invalid select path '" + path + "'");
+                }
+                node = node.children.computeIfAbsent(name, ignored -> new Node());
+            }
+            node.all = true;
+        }
+        return root;
+    }
+
+    private static String literal(String value, String filter) {
+        if (value.length() >= 2 && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+                && value.charAt(value.length() - 1) == value.charAt(0)) {
+            return value.substring(1, value.length() - 1);
+        }
+        if ("null".equals(value)) {
+            return null;
+        }
+        if ("true".equals(value) || "false".equals(value) || NUMBER.matcher(value).matches()) {
+            return value;
+        }
+        throw new IllegalArgumentException("invalid filter '" + filter + "', string values have to be quoted");
+    }
+
+    private boolean matches(String value) {
+        switch (filterOperator) {
+            case "==":
+                return equalValues(value, filterValue);
+            case "!=":
+                return !equalValues(value, filterValue);
+            case "^=":
+                return value != null && filterValue != null && value.startsWith(filterValue);
+            default:
+                return value != null && filterValue != null && value.contains(filterValue);
+        }
+    }
+
+    private static boolean equalValues(String value, String expected) {
+        if (value == null || expected == null) {
+            return value == null && expected == null;
+        }
+        if (value.equals(expected)) {
+            return true;
+        }
+        /* 2 and 2.0 are the same number */
+        return NUMBER.matcher(value).matches() && NUMBER.matcher(expected).matches()
+                && new BigDecimal(value).compareTo(new BigDecimal(expected)) == 0;
+    }
+
+    private static JsonWriter newWriter(Writer out) {
+        /* written the same way as JsonUtils.GSON.toJson(data) */
+        JsonWriter writer = new JsonWriter(out);
+        writer.setHtmlSafe(JsonUtils.GSON.htmlSafe());
+        writer.setSerializeNulls(JsonUtils.GSON.serializeNulls());
+        return writer;
+    }
+
+    /* writes a scalar to the output of the projecting writer */
+    private interface Write {
+        void to(JsonWriter out) throws IOException;
+    }
+
+    private static class Frame {
+        final boolean array;
+        /* selection of this object or array, null if it is left out */
+        final Node selection;
+        /* true for the array holding the items of a list */
+        final boolean list;
+        /* name and selection of the current field of an object */
+        String name;
+        Node fieldSelection;
+
+        Frame(boolean array, Node selection, boolean list) {
+            this.array = array;
+            this.selection = selection;
+            this.list = list;
+        }
+    }
+
+    /*
+     * Receives the json tokens from gson and passes on the selected ones. Every token is tracked, even the
+     * ones left out, so that the filtered field of an item is seen whether it is selected or not.
+     */
+    private class ProjectingWriter extends JsonWriter {
+        private final JsonWriter delegate;
+        private final List<Frame> frames = new ArrayList<>();
+
+        /* the item of the list being buffered, if there is a filter */
+        private int itemDepth = -1;
+        private StringWriter itemJson;
+        private JsonWriter itemWriter;
+        private boolean itemHasValue;
+        private boolean itemMatches;
+
+        ProjectingWriter(Writer out) {
+            super(out);
+            this.delegate = newWriter(out);
+        }
+
+        private JsonWriter out() {
+            return itemWriter != null ? itemWriter : delegate;
+        }
+
+        private Frame top() {
+            return frames.get(frames.size() - 1);
+        }
+
+        private Node valueSelection() {
+            if (frames.isEmpty()) {
+                return selection;
+            }
+            return top().array ? top().selection : top().fieldSelection;
+        }
+
+        private void startValue() {
+            if (frames.isEmpty() || !top().list || itemDepth >= 0) {
+                return;
+            }
+
+            items++;
+            if (filterPath != null) {
+                itemDepth = frames.size();
+                itemJson = new StringWriter();
+                itemWriter = newWriter(itemJson);
+                itemHasValue = false;
+                itemMatches = false;
+            }
+        }
+
+        private void endValue() throws IOException {
+            if (itemDepth != frames.size()) {
+                return;
+            }
+
+            boolean keep = itemHasValue ? itemMatches : matches(null);
+            itemDepth = -1;
+            itemWriter = null;
+            if (keep && itemJson.getBuffer().length() > 0) {
+                delegate.jsonValue(itemJson.toString());
+            }
+        }
+
+        /* checks a value against the filter if it is at the filtered path of the current item */
+        private void check(String value) {
+            if (itemDepth < 0) {
+                return;
+            }
+
+            int field = 0;
+            for (int i = itemDepth; i < frames.size(); i++) {
+                Frame frame = frames.get(i);
+                if (frame.array) {
+                    continue;
+                }
+                if (field >= filterPath.length || !filterPath[field].equals(frame.name)) {
+                    return;
+                }
+                field++;
+            }
+
+            if (field == filterPath.length) {
+                itemHasValue = true;
+                itemMatches |= matches(value);
+            }
+        }
+
+        private JsonWriter begin(boolean array) throws IOException {
+            Node node = valueSelection();
+            startValue();
+
+            boolean list = array && (frames.isEmpty()
+                    || (frames.size() == 1 && !top().array && ITEMS.equals(top().name)));
+            frames.add(new Frame(array, node, list));
+
+            if (node != null) {
+                if (array) {
+                    out().beginArray();
+                } else {
+                    out().beginObject();
+                }
+            }
+            return this;
+        }
+
+        private JsonWriter end(boolean array) throws IOException {
+            Frame frame = frames.remove(frames.size() - 1);
+            if (frame.selection != null) {
+                if (array) {
+                    out().endArray();
+                } else {
+                    out().endObject();
+                }
+            }
+
+            endValue();
+            return this;
+        }
+
+        private JsonWriter scalar(String value, Write write) throws IOException {
+            Node node = valueSelection();
+            startValue();
+            check(value);
+            if (node != null) {
+                write.to(out());
+            }
+
+            endValue();
+            return this;
+        }
+
+        @Override
+        public JsonWriter beginArray() throws IOException {
+            return begin(true);
+        }
+
+        @Override
+        public JsonWriter endArray() throws IOException {
+            return end(true);
+        }
+
+        @Override
+        public JsonWriter beginObject() throws IOException {
+            return begin(false);
+        }
+
+        @Override
+        public JsonWriter endObject() throws IOException {
+            return end(false);
+        }
+
+        @Override
+        public JsonWriter name(String name) throws IOException {
+            Frame frame = top();
+            frame.name = name;
+            frame.fieldSelection = frame.selection == null ? null : frame.selection.child(name);
+            if (frame.fieldSelection != null) {
+                out().name(name);
+            }
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(String value) throws IOException {
+            return scalar(value, out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter jsonValue(String value) throws IOException {
+            return scalar(value, out -> out.jsonValue(value));
+        }
+
+        @Override
+        public JsonWriter nullValue() throws IOException {
+            return scalar(null, JsonWriter::nullValue);
+        }
+
+        @Override
+        public JsonWriter value(boolean value) throws IOException {
+            return scalar(String.valueOf(value), out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter value(Boolean value) throws IOException {
+            return scalar(value == null ? null : String.valueOf(value), out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter value(float value) throws IOException {
+            return scalar(String.valueOf(value), out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter value(double value) throws IOException {
+            return scalar(String.valueOf(value), out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter value(long value) throws IOException {
+            return scalar(String.valueOf(value), out -> out.value(value));
+        }
+
+        @Override
+        public JsonWriter value(Number value) throws IOException {
+            return scalar(value == null ? null : value.toString(), out -> out.value(value));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ionoscloud.services;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Decides whether a failed call is retried, and how long to wait before the next attempt.
+ *
+ * A 429 is always retried, since the api did not process the request. 5xx responses and failures
+ * without a response (status 0) are only retried for idempotent operations, so that a create is never
+ * sent twice. The wait is the response's Retry-After when it has one, and otherwise an exponential
+ * backoff with full jitter, so that concurrent callers do not retry in lockstep. Neither waits longer
+ * than MAX_BACKOFF_MILLIS.
+ *
+ * Retries are off unless IONOS_DRIVER_MAX_ATTEMPTS allows more than one attempt per call.
+ */
+public class RetryPolicy {
+
+    public static final String MAX_ATTEMPTS_ENV_VAR = "IONOS_DRIVER_MAX_ATTEMPTS";
+
+    public static final int TOO_MANY_REQUESTS = 429;
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    public static final long MAX_BACKOFF_MILLIS = 30000;
+
+    /* a single attempt per call, e.g. for load runs that report every 429 and 5xx */
+    public static final RetryPolicy NONE = new RetryPolicy(1);
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 1;
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    private final int maxAttempts;
+
+    public RetryPolicy(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public static RetryPolicy fromEnv() {
+        String attempts = System.getenv(MAX_ATTEMPTS_ENV_VAR);
+        return new RetryPolicy(attempts == null || attempts.trim().isEmpty() ? DEFAULT_MAX_ATTEMPTS : Integer.parseInt(attempts.trim()));
+    }
+
+    public static boolean isIdempotent(String httpMethod) {
+        return httpMethod != null && IDEMPOTENT_METHODS.contains(httpMethod.toUpperCase(Locale.ROOT));
+    }
+
+    public boolean shouldRetry(int status, boolean idempotent, int attempt) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        return status == TOO_MANY_REQUESTS || (idempotent && (status == 0 || status >= 500));
+    }
+
+    /* nanoseconds to wait before the next attempt, after the given attempt (1-based) failed */
+    public long backoff(int attempt, Map<String, List<String>> headers) {
+        Long retryAfter = retryAfter(headers);
+        if (retryAfter != null) {
+            return Math.min(retryAfter, TimeUnit.MILLISECONDS.toNanos(MAX_BACKOFF_MILLIS));
+        }
+
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 16));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /* Retry-After is either a number of seconds or an http date */
+    static Long retryAfter(Map<String, List<String>> headers) {
+        if (headers == null) {
+            return null;
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!RETRY_AFTER_HEADER.equalsIgnoreCase(header.getKey()) || header.getValue() == null || header.getValue().isEmpty()) {
+                continue;
+            }
+
+            String value = header.getValue().get(0).trim();
+            try {
+                return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration wait = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return Math.max(0, wait.toNanos());
+                } catch (DateTimeParseException ignored) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
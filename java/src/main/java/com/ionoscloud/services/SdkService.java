@@ -1,10 +1,6 @@
 package com.ionoscloud.services;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.gson.Gson;
 import com.ionoscloud.ApiClient;
 import com.ionoscloud.ApiException;
 import com.ionoscloud.ApiResponse;
@@ -14,23 +10,18 @@ import com.ionoscloud.auth.HttpBearerAuth;
 import com.ionoscloud.auth.ApiKeyAuth;
 import com.ionoscloud.models.*;
 import com.ionoscloud.models.Error;
-import com.thoughtworks.paranamer.AnnotationParanamer;
-import com.thoughtworks.paranamer.BytecodeReadingParanamer;
-import com.thoughtworks.paranamer.CachingParanamer;
-import com.thoughtworks.paranamer.Paranamer;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.WordUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.ResourcesScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
-import org.reflections.util.FilterBuilder;
-import org.threeten.bp.OffsetDateTime;
+import com.ionoscloud.utils.JsonUtils;
+import com.ionoscloud.utils.SpillingWriter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -38,9 +29,30 @@ public class SdkService {
 
     protected ApiClient apiClient;
 
+    protected final OperationIndex operationIndex;
+
+    /* apiClient with its cached api instances and invokers */
+    private ClientContext defaultClient;
+
+    /* clients of calls that bring their own credentials, created on first use */
+    private ApiClientPool clientPool;
+
+    private HttpTransport transport;
+
+    /* drivers of other sdk products, for inputs with a 'product' */
+    private ProductRegistry products;
+
+    /* responses of GET operations, null unless caching is configured */
+    private ResponseCache responseCache;
+
+    /* decides which failed calls are retried, by default none */
+    private final RetryPolicy retryPolicy = RetryPolicy.fromEnv();
+
+    /* per operation phase timings of every call made through this service */
+    private final LatencyHistograms latencyHistograms = new LatencyHistograms();
+
     private final Logger log = Logger.getLogger("sdk-service");
 
-    private static final String BASE_PACKAGE_NAME = "com.ionoscloud.api";
     private static final String CLOUDAPI_BASIC_AUTH = "Basic Authentication";
     private static final String CLOUDAPI_TOKEN_AUTH = "Token Authentication";
     private static final String DBAAS_BASIC_AUTH = "basicAuth";
@@ -48,8 +60,29 @@ public class SdkService {
     private static final String AUTH_BASIC_AUTH = "BasicAuthentication";
     private static final String AUTH_TOKEN_AUTH = "TokenAuthentication";
     private static final String WAIT_FOR_REQUEST = "waitForRequest";
+    private static final String LIST_OPERATIONS = "listOperations";
+    private static final String LATENCY_HISTOGRAMS = "latencyHistograms";
+    private static final String CACHE_STATS = "cacheStats";
+    /* overrides the api base path, e.g. to run against a local stub server */
+    public static final String IONOS_API_URL_ENV_VAR = "IONOS_API_URL";
+    private static final long DEFAULT_WAIT_TIMEOUT = 80000;
+    private static final long DEFAULT_WAIT_INITIAL_INTERVAL = 2000;
+    private static final long DEFAULT_WAIT_MAX_INTERVAL = 4000;
     public SdkService() {
 
+        this.operationIndex = OperationIndex.load();
+
+        /* a replayed cassette answers every call itself, so no credentials are needed */
+        if (HttpCassette.getModeFromEnv() == HttpCassette.Mode.REPLAY) {
+            this.apiClient = Configuration.getDefaultApiClient();
+            this.defaultClient = new ClientContext(apiClient, null);
+            useApiUrl();
+            useCassette();
+            useResponseCache();
+            useTransport();
+            return;
+        }
+
         String username = System.getenv(Configuration.IONOS_USERNAME_ENV_VAR);
         String password = System.getenv(Configuration.IONOS_PASSWORD_ENV_VAR);
         String token = System.getenv(Configuration.IONOS_TOKEN_ENV_VAR);
@@ -67,21 +100,81 @@ public class SdkService {
         }
 
         this.apiClient = Configuration.getDefaultApiClient();
+        this.defaultClient = new ClientContext(apiClient, null);
+        useApiUrl();
+
+        authenticate(this.apiClient, username, password, token);
+
+        useCassette();
+        useResponseCache();
+        useTransport();
+    }
+
+    private void useApiUrl() {
+        String apiUrl = System.getenv(IONOS_API_URL_ENV_VAR);
+        if (apiUrl != null && !apiUrl.trim().isEmpty()) {
+            this.apiClient.setBasePath(apiUrl.trim());
+            log.info("using api url " + apiUrl.trim());
+        }
+    }
+
+    /* applies the transport settings of the env to the api client, once its interceptors are in place */
+    private void useTransport() {
+        getTransport().install();
+    }
 
+    protected synchronized HttpTransport getTransport() {
+        if (transport == null) {
+            transport = new HttpTransport(apiClient, HttpTransport.fromEnv());
+        }
+        return transport;
+    }
+
+    /* records or replays the http exchanges of the api client if a cassette is configured in the env */
+    private void useCassette() {
+        try {
+            HttpCassette cassette = HttpCassette.fromEnv();
+            if (cassette != null) {
+                this.apiClient.setHttpClient(this.apiClient.getHttpClient().newBuilder().addInterceptor(cassette).build());
+                log.info("using http cassette in " + cassette.getMode() + " mode");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("could not open http cassette: " + e.getMessage(), e);
+        }
+    }
+
+    /* caches the responses of GET operations if a cache size is configured in the env */
+    private void useResponseCache() {
+        responseCache = ResponseCache.fromEnv();
+        if (responseCache != null) {
+            this.apiClient.setHttpClient(this.apiClient.getHttpClient().newBuilder().addInterceptor(responseCache).build());
+            log.info("caching responses of GET operations");
+        }
+    }
+
+    /* uses an already configured api client and operation index, e.g. for benchmarks against a stub api */
+    public SdkService(ApiClient apiClient, OperationIndex operationIndex) {
+        this.apiClient = apiClient;
+        this.operationIndex = operationIndex;
+        this.defaultClient = new ClientContext(apiClient, null);
+    }
+
+    /* configures the token, or the username and password if there is no token, on an api client */
+    public static void authenticate(ApiClient apiClient, String username, String password, String token) {
         if (token != null && token.trim().length() != 0) {
-          String authToken = getAuthToken(token);
+          getAuthToken(apiClient, token);
         } else {
             // Configure HTTP basic authorization: Basic Authentication
-            HttpBasicAuth basicAuthentication = (HttpBasicAuth) this.apiClient.getAuthentication(CLOUDAPI_BASIC_AUTH);
+            HttpBasicAuth basicAuthentication = (HttpBasicAuth) apiClient.getAuthentication(CLOUDAPI_BASIC_AUTH);
     
             //for DBaaS, we have "basicAuth", not "Basic Authentication"
             if (basicAuthentication == null) {
-               basicAuthentication = (HttpBasicAuth) this.apiClient.getAuthentication(DBAAS_BASIC_AUTH);
+               basicAuthentication = (HttpBasicAuth) apiClient.getAuthentication(DBAAS_BASIC_AUTH);
             }
 
             //for the Authentication API, we have "BasicAuthentication", not "Basic Authentication" or "basicAuth"
             if (basicAuthentication == null) {
-               basicAuthentication = (HttpBasicAuth) this.apiClient.getAuthentication(AUTH_BASIC_AUTH);
+               basicAuthentication = (HttpBasicAuth) apiClient.getAuthentication(AUTH_BASIC_AUTH);
             }
             basicAuthentication.setUsername(username);
             basicAuthentication.setPassword(password);
@@ -89,22 +182,26 @@ public class SdkService {
     }
 
 public String getAuthToken(String token) {
+    return getAuthToken(this.apiClient, token);
+}
+
+private static String getAuthToken(ApiClient apiClient, String token) {
     if (token != null && !token.trim().isEmpty()) {
         // Try CLOUDAPI_TOKEN_AUTH first, then fallback to DBAAS_TOKEN_AUTH, then fallback to AUTH_TOKEN_AUTH
-        String authToken = setAuthToken(token, CLOUDAPI_TOKEN_AUTH);
+        String authToken = setAuthToken(apiClient, token, CLOUDAPI_TOKEN_AUTH);
         if (authToken == null) {
-            authToken = setAuthToken(token, DBAAS_TOKEN_AUTH);
+            authToken = setAuthToken(apiClient, token, DBAAS_TOKEN_AUTH);
         }
         if (authToken == null) {
-            authToken = setAuthToken(token, AUTH_TOKEN_AUTH);
+            authToken = setAuthToken(apiClient, token, AUTH_TOKEN_AUTH);
         }
         return authToken;
     }
     return null; // Or handle as appropriate
 }
 
-private String setAuthToken(String token, String authType) {
-    Object auth = this.apiClient.getAuthentication(authType);
+private static String setAuthToken(ApiClient apiClient, String token, String authType) {
+    Object auth = apiClient.getAuthentication(authType);
     
     if (auth instanceof ApiKeyAuth) {
         ApiKeyAuth apiKeyAuth = (ApiKeyAuth) auth;
@@ -123,40 +220,170 @@ private String setAuthToken(String token, String authType) {
 }
 
     
+    public OperationIndex getOperationIndex() {
+        return operationIndex;
+    }
+
+    /*
+     * Resolves every operation and runs the json mappers once, so that the first calls are not slowed
+     * down by class loading. Also used as the training run for the class data sharing archive.
+     */
+    public void warmUp() {
+        for (Operation operation : operationIndex.getOperations()) {
+            try {
+                Method method = operationIndex.getMethod(operation);
+                ParameterBinder.of(method, operation.getParameterNames());
+                defaultClient.getInvoker(method);
+            } catch (ReflectiveOperationException e) {
+                log.warning("could not resolve operation " + operation.getName() + ": " + e.getMessage());
+            }
+        }
+
+        try {
+            Input input = JsonUtils.MAPPER.readValue(
+                    "{\"operation\": \"" + LIST_OPERATIONS + "\", \"params\": [{\"name\": \"depth\", \"value\": 1}]}",
+                    Input.class
+            );
+            input.validate();
+            run(input).writeTo(new ByteArrayOutputStream());
+            JsonUtils.MAPPER.writeValueAsString(Response.builder().result(new RawJson(JsonUtils.GSON.toJson(input))).build());
+        } catch (Throwable e) {
+            log.warning("could not warm up json mappers: " + e.getMessage());
+        }
+
+        if (products != null) {
+            products.warmUp();
+        }
+    }
+
+    /* returns the client for the given credentials, or the service's own client if there are none */
+    public ClientContext getClient(Credentials credentials) {
+        if (credentials == null) {
+            return defaultClient;
+        }
+
+        synchronized (this) {
+            if (clientPool == null) {
+                clientPool = new ApiClientPool(apiClient, ApiClientPool.getMaxSizeFromEnv());
+            }
+        }
+        return clientPool.get(credentials);
+    }
+
+    /* like getClient(credentials), but calling through the http client of the transport overrides if there are any */
+    public ClientContext getClient(Credentials credentials, TransportConfig transport) {
+        ClientContext client = getClient(credentials);
+        return transport == null ? client : client.withTransport(getTransport(), transport);
+    }
+
+    public ProductRegistry getProducts() {
+        return products;
+    }
+
+    /* dispatches inputs with a 'product' to the given product drivers */
+    public void useProducts(ProductRegistry products) {
+        this.products = products;
+        if (products != null) {
+            log.info("dispatching to products " + products.getNames());
+        }
+    }
+
+    public LatencyHistograms getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /* whether run() knows the operation, either from the operation index or as one of the driver's own */
+    public boolean hasOperation(String operation) {
+        return WAIT_FOR_REQUEST.equals(operation) || LIST_OPERATIONS.equals(operation) || LATENCY_HISTOGRAMS.equals(operation)
+                || CACHE_STATS.equals(operation) || operationIndex.find(operation) != null;
+    }
+
     public Response run(Input input)
             throws Throwable {
+        return run(input, new PhaseTimer());
+    }
+
+    /*
+     * Runs the input, recording the lookup, bind, invoke and convert phases on the timer. The timer may
+     * already hold earlier phases of the call, e.g. reading and validating the input.
+     */
+    public Response run(Input input, PhaseTimer timer)
+            throws Throwable {
+        return run(input, timer, null);
+    }
+
+    /*
+     * Like run(input, timer), but the pages of a paginated list are handed to the page sink as they arrive
+     * instead of being collected into the responses of the returned summary.
+     */
+    public Response run(Input input, PhaseTimer timer, Consumer<Response> pageSink)
+            throws Throwable {
+
+        if (input.getProduct() != null) {
+            if (products == null) {
+                throw new IllegalArgumentException("product '" + input.getProduct() + "' requested, but no products are set in "
+                        + ProductRegistry.PRODUCTS_ENV_VAR);
+            }
+            return products.run(input, pageSink);
+        }
+
+        if (input.getOperations() != null) {
+            return new BatchExecutor(this).run(input);
+        }
 
         String operation  = input.getOperation();
         List<Param> params = input.getParams();
 
         if (operation.equals(WAIT_FOR_REQUEST)) {
             return this.waitForRequest(input);
+        } else if (operation.equals(LIST_OPERATIONS)) {
+            return Response.builder().result(operationIndex.getOperations()).build();
+        } else if (operation.equals(LATENCY_HISTOGRAMS)) {
+            return latencyHistograms(input);
+        } else if (operation.equals(CACHE_STATS)) {
+            return cacheStats(input);
         } else {
 
-            Set<Class<?>> classSet = getAccessibleMethods();
-
-            for (Class<?> apiClass : classSet) {
-                for (Method method : apiClass.getMethods()) {
-                    if (method.getName().equals(operation + "WithHttpInfo")) {
-                        /* get parameter list for api call */
-                        Object[] prm;
-
-                        if (params != null) {
-                            prm = getParameterList(
-                                method, params.stream()
-                                        .collect(Collectors.toMap(
-                                                Param::getName, Param::getValue
-                                        ))
-                            );
-                        } else {
-                            prm = getParameterList(method, new HashMap<String, Object>());
-                        }
+            Operation sdkOperation = operationIndex.find(operation);
 
-                        log.info("found method " + operation + "WithHttpInfo() in class " + apiClass.getName());
+            if (sdkOperation != null) {
+                Method method = operationIndex.getMethod(sdkOperation);
+                OperationInvoker invoker = getClient(input.getCredentials(), input.getTransport()).getInvoker(method);
+                timer.mark(PhaseTimer.LOOKUP);
 
-                        return performRequest(apiClient, apiClass, method, prm);
+                /* get parameter list for api call */
+                ParameterBinder binder = ParameterBinder.of(method, sdkOperation.getParameterNames());
+                Map<String, Object> paramMap = new HashMap<>();
+
+                if (params != null) {
+                    /* a param may be null, which Collectors.toMap does not allow */
+                    for (Param param : params) {
+                        if (paramMap.containsKey(param.getName())) {
+                            throw new IllegalArgumentException("duplicate param '" + param.getName() + "'");
+                        }
+                        paramMap.put(param.getName(), param.getValue());
                     }
                 }
+
+                if (Boolean.TRUE.equals(input.getPaginate())) {
+                    return new Paginator(this).run(input, sdkOperation, invoker, binder, paramMap, pageSink);
+                }
+
+                /* an invalid selection or filter fails before the api is called */
+                ResultProjection projection = ResultProjection.of(input);
+                Object[] prm = binder.bind(paramMap);
+
+                timer.mark(PhaseTimer.BIND);
+
+                log.info("found method " + sdkOperation.getMethod() + "() in class " + sdkOperation.getApiClass());
+
+                Response response = performRequest(sdkOperation, invoker, prm, timer, projection);
+
+                latencyHistograms.record(operation, timer);
+                if (Boolean.TRUE.equals(input.getTimings())) {
+                    response.setTimings(timer.toMillis());
+                }
+                return response;
             }
         }
 
@@ -173,138 +400,294 @@ private String setAuthToken(String token, String authType) {
 
     public Response performRequest(ApiClient apiClient, Class<?> apiClass, Method method, Object[] prm)
             throws Throwable {
+        return performRequest(getInvoker(apiClient, apiClass, method), prm);
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+    public Response performRequest(OperationInvoker invoker, Object[] prm)
+            throws Throwable {
+        return performRequest(invoker, prm, new PhaseTimer());
+    }
 
-        log.info("call params: " + objectMapper.writeValueAsString(prm));
+    public Response performRequest(OperationInvoker invoker, Object[] prm, PhaseTimer timer)
+            throws Throwable {
+        return performRequest(null, invoker, prm, timer);
+    }
 
-        Object result;
+    public Response performRequest(Operation operation, OperationInvoker invoker, Object[] prm, PhaseTimer timer)
+            throws Throwable {
+        return performRequest(operation, invoker, prm, timer, null);
+    }
 
-        try {
-            result = method.invoke(
-                    apiClass
-                            .getDeclaredConstructor(ApiClient.class)
-                            .newInstance(apiClient),
-                    prm
-            );
+    /*
+     * Calls the api, marking the invoke phase on the timer once it returns and the convert phase once the
+     * result is serialized, through the projection if there is one. GET operations go through the
+     * response cache if it is on. Every attempt waits for the rate limiter of the invoker's client, if it
+     * has one. Failed attempts are retried as the retry policy of the env allows; 5xx responses only if the
+     * operation is known to be idempotent.
+     */
+    public Response performRequest(Operation operation, OperationInvoker invoker, Object[] prm, PhaseTimer timer,
+                                   ResultProjection projection)
+            throws Throwable {
+        return performRequest(operation, invoker, prm, timer, projection, retryPolicy);
+    }
 
-            if (!(result instanceof ApiResponse)) {
-                throw new IllegalAccessException("method did not return an ApiResponse object");
-            }
+    public Response performRequest(Operation operation, OperationInvoker invoker, Object[] prm, PhaseTimer timer,
+                                   ResultProjection projection, RetryPolicy retryPolicy)
+            throws Throwable {
 
-        } catch (InvocationTargetException e) {
-            Throwable target = e.getTargetException();
-            if (target instanceof ApiException) {
-                ApiException apiEx = (ApiException)target;
-                HttpResponse httpResponse = HttpResponse
-                        .builder()
-                        .body(apiEx.getResponseBody())
-                        .headers(apiEx.getResponseHeaders())
-                        .statusCode(apiEx.getCode())
-                        .build();
-                return Response
-                        .builder()
-                        .result(apiEx.getResponseBody())
-                        .error(
-                                Error
-                                        .builder()
-                                        .message(apiEx.getMessage())
-                                        .apiResponse(httpResponse)
-                                        .build()
-                        )
-                        .httpResponse(httpResponse)
-                        .build();
-            } else {
-                throw target;
-            }
+        if (log.isLoggable(Level.FINE)) {
+            /* the params are sdk models, so they are logged through gson like the results */
+            log.fine("call params: " + JsonUtils.GSON.toJson(prm));
         }
 
+        boolean idempotent = operation != null && RetryPolicy.isIdempotent(operation.getHttpMethod());
+        RateLimiter rateLimiter = invoker.getRateLimiter();
+        long start = System.nanoTime();
+        long waited = 0;
+        int attempt = 0;
+        Object result = null;
+
+        /* a cached GET is served as is while fresh, and revalidated with its etag once stale */
+        ResponseCache.Key cacheKey = null;
+        ResponseCache.Entry cached = null;
+        String cacheStatus = null;
+        long cacheGeneration = 0;
+        if (responseCache != null && operation != null && ResponseCache.isCacheable(operation)) {
+            cacheKey = new ResponseCache.Key(invoker, JsonUtils.GSON.toJson(prm));
+            cacheGeneration = responseCache.generation();
+            cached = responseCache.get(cacheKey);
+            cacheStatus = cached != null && cached.isFresh() ? ResponseCache.HIT : ResponseCache.MISS;
+        }
+        boolean mutating = responseCache != null && operation != null && !"GET".equals(operation.getHttpMethod());
 
-        ApiResponse<?> apiResponse = (ApiResponse<?>) result;
+        timer.restart();
+        try {
+            if (ResponseCache.HIT.equals(cacheStatus)) {
+                result = cached.getResponse();
+            } else if (cached != null) {
+                responseCache.setIfNoneMatch(cached.getEtag());
+            }
 
-        Map<String, List<String>> headers = apiResponse.getHeaders();
-        Map<String, List<String>> headersObject = new HashMap<>();
-        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
-            headersObject.put(
-                    WordUtils
-                            .capitalize(entry.getKey().replace('-', ' '))
-                            .replace(' ', '-'),
-                    entry.getValue()
-            );
+            while (result == null) {
+                attempt++;
+                if (rateLimiter != null) {
+                    waited += rateLimiter.acquire();
+                }
+
+                try {
+                    result = invoker.invoke(prm);
+                    if (result instanceof ApiResponse && rateLimiter != null) {
+                        rateLimiter.update(((ApiResponse<?>) result).getHeaders());
+                    }
+                    break;
+                } catch (ApiException apiEx) {
+                    if (rateLimiter != null) {
+                        rateLimiter.update(apiEx.getResponseHeaders());
+                    }
+                    if (apiEx.getCode() == ResponseCache.NOT_MODIFIED && cached != null) {
+                        responseCache.refresh(cached);
+                        result = cached.getResponse();
+                        cacheStatus = ResponseCache.REVALIDATED;
+                        break;
+                    }
+                    if (!retryPolicy.shouldRetry(apiEx.getCode(), idempotent, attempt)) {
+                        timer.mark(PhaseTimer.INVOKE);
+                        Response response = apiErrorResponse(apiEx);
+                        response.setAttempts(attemptStats(attempt, start, waited));
+                        return response;
+                    }
+
+                    long backoff = retryPolicy.backoff(attempt, apiEx.getResponseHeaders());
+                    if (apiEx.getCode() == RetryPolicy.TOO_MANY_REQUESTS && rateLimiter != null) {
+                        rateLimiter.pause(backoff);
+                    }
+                    log.warning("attempt " + attempt + " failed with status " + apiEx.getCode() + ", retrying in "
+                            + TimeUnit.NANOSECONDS.toMillis(backoff) + "ms");
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                    waited += backoff;
+                }
+            }
+        } finally {
+            if (cacheKey != null) {
+                responseCache.setIfNoneMatch(null);
+                responseCache.count(cacheStatus);
+            }
+            /* a failed mutation may still have changed the resource */
+            if (mutating) {
+                responseCache.invalidate(operation, prm);
+            }
         }
+        timer.mark(PhaseTimer.INVOKE);
 
+        if (!(result instanceof ApiResponse)) {
+            throw new IllegalAccessException("method did not return an ApiResponse object");
+        }
 
-        Gson gson = new Gson();
+        ApiResponse<?> apiResponse = (ApiResponse<?>) result;
 
         /* We're still using gson here to serialize the structure returned by the sdk because
          * the sdk is generated using gson and when serializing via jackson, the json adapter is not used
          * and enums are serialized in caps instead of using the lowercase values, which is not good.
-         * However, this doesn't hurt since we were actually interested in using jackson to parse the input
-         * payload that gets deserialized into sdk structures and use setters and getters there.
+         * The data is serialized exactly once: the same json is written as is into 'result' and
+         * used as the http response body, instead of being parsed back into maps and serialized again.
+         * A projection leaves out the fields and items that were not asked for while serializing. A result
+         * larger than the spill threshold is written to a temp file instead of being kept in the heap.
          */
-        String apiResponseData = gson.toJsonTree(apiResponse.getData()).toString();
-        Object resultObj;
-        //we can also get an array here - "[]" for infosVersionsGet, or a map "{"data":{}}"
-        if (apiResponseData.startsWith("[")) {
-            resultObj = objectMapper.readValue(apiResponseData, List.class);
+        SpillingWriter json = new SpillingWriter();
+        if (projection != null) {
+            projection.toJson(apiResponse.getData(), json);
         } else {
-            resultObj = objectMapper.readValue(apiResponseData, HashMap.class);
+            JsonUtils.GSON.toJson(apiResponse.getData(), json);
         }
+        RawJson apiResponseData = json.toRawJson();
 
-        return Response
+        Response response = Response
                 .builder()
-                .result(resultObj)
-                // .result(apiResponse.getData()) - we could've done this if jackson was used by openapi generator
+                .result(apiResponseData)
                 .httpResponse(
                         HttpResponse
                                 .builder()
-                                .body(objectMapper.writeValueAsString(apiResponse.getData()))
+                                .body(apiResponseData.isSpilled() ? apiResponseData.asText() : apiResponseData.toString())
                                 .headers(apiResponse.getHeaders())
                                 .statusCode(apiResponse.getStatusCode())
                                 .build()
                 )
+                .attempts(attemptStats(attempt, start, waited))
+                .cache(cacheStatus)
                 .build();
+
+        if (ResponseCache.MISS.equals(cacheStatus)) {
+            responseCache.put(cacheKey, operation, prm, apiResponse, cacheGeneration);
+        }
+
+        timer.mark(PhaseTimer.CONVERT);
+        return response;
+    }
+
+    /* returns the latency histograms per operation and phase; the 'reset' param clears them afterwards */
+    protected Response latencyHistograms(Input input) {
+        Response response = Response.builder().result(latencyHistograms.summarize()).build();
+        if (resetParam(input)) {
+            latencyHistograms.reset();
+        }
+        return response;
     }
 
+    /* returns the counters of the response cache; the 'reset' param clears them afterwards */
+    protected Response cacheStats(Input input) {
+        if (responseCache == null) {
+            throw new IllegalStateException("the response cache is off, set " + ResponseCache.SIZE_ENV_VAR + " to turn it on");
+        }
+        return Response.builder().result(responseCache.getStats(resetParam(input))).build();
+    }
 
+    private static boolean resetParam(Input input) {
+        boolean reset = false;
+        if (input.getParams() != null) {
+            for (Param param : input.getParams()) {
+                if ("reset".equals(param.getName())) {
+                    reset = Boolean.TRUE.equals(param.getValue());
+                }
+            }
+        }
+        return reset;
+    }
+
+    /*
+     * Returns the invoker for an api method. Invokers for the service's own ApiClient are cached together
+     * with their api instance, so repeated calls skip constructor reflection and method lookup.
+     */
+    public OperationInvoker getInvoker(ApiClient apiClient, Class<?> apiClass, Method method)
+            throws ReflectiveOperationException {
+
+        if (apiClient != this.apiClient) {
+            return new OperationInvoker(method, apiClass.getDeclaredConstructor(ApiClient.class).newInstance(apiClient));
+        }
+
+        return defaultClient.getInvoker(method);
+    }
+
+
+    /*
+     * Waits for the request given in 'request', or for all requests given in 'requests'. The timings
+     * can be set through the 'timeout', 'initialInterval' and 'maxInterval' params (milliseconds).
+     */
     protected Response waitForRequest(Input input) throws Throwable {
-        Param requestParam = input.getParams().stream()
-                .filter(n -> n.getName().equals("request"))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("'request' parameter is missing"));
+        Map<String, Object> params = new HashMap<>();
+        if (input.getParams() != null) {
+            for (Param param : input.getParams()) {
+                params.put(param.getName(), param.getValue());
+            }
+        }
+
+        List<String> requestIds = new ArrayList<>();
+        if (params.get("request") != null) {
+            requestIds.add(getRequestIdFromUrl((String) params.get("request")));
+        }
+        if (params.get("requests") instanceof List) {
+            for (Object url : (List<?>) params.get("requests")) {
+                requestIds.add(getRequestIdFromUrl((String) url));
+            }
+        }
+        if (requestIds.isEmpty()) {
+            throw new IllegalArgumentException("'request' parameter is missing");
+        }
+
+        long timeout = longParam(params, "timeout", DEFAULT_WAIT_TIMEOUT);
+        long initialInterval = longParam(params, "initialInterval", DEFAULT_WAIT_INITIAL_INTERVAL);
+        long maxInterval = longParam(params, "maxInterval", DEFAULT_WAIT_MAX_INTERVAL);
+
+        log.info(WAIT_FOR_REQUEST + " requestIds: " + requestIds);
+
+        //we need to do this because for DBaaS, the requests api does not exist
+        if (operationIndex.find(RequestPoller.STATUS_OPERATION) == null) {
+            for (String requestId : requestIds) {
+                Response response = waitForRequestBlocking(requestId, timeout, initialInterval, maxInterval);
+                if (response.getError() != null) {
+                    return response;
+                }
+            }
+            return Response.builder().build();
+        }
+
+        List<CompletableFuture<RequestState>> waiters = new ArrayList<>();
+        for (String requestId : requestIds) {
+            waiters.add(getRequestPoller(input.getCredentials()).submit(requestId, timeout, initialInterval, maxInterval));
+        }
+
+        List<RequestState> states = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (CompletableFuture<RequestState> waiter : waiters) {
+            RequestState state = waiter.join();
+            states.add(state);
+            if (!RequestPoller.STATUS_DONE.equals(state.getStatus())) {
+                errors.add("request " + state.getRequestId() + " " + state.getStatus() + ": " + state.getMessage());
+            }
+        }
+
+        Response.ResponseBuilder response = Response.builder().result(states);
+        if (!errors.isEmpty()) {
+            response.error(Error.builder().message(String.join("; ", errors)).build());
+        }
+        return response.build();
+    }
 
-        String requestId = getRequestIdFromUrl((String)requestParam.getValue());
+    /* the poller waiting for the requests of the client with the given credentials */
+    protected RequestPoller getRequestPoller(Credentials credentials) {
+        return getClient(credentials).getRequestPoller(this, operationIndex.find(RequestPoller.LIST_OPERATION) != null);
+    }
 
-        log.info(WAIT_FOR_REQUEST + " requestId: " + requestId);
-        //we need to do this because for DBaaS, waitForRequest does not exist
+    protected Response waitForRequestBlocking(String requestId, long timeout, long initialInterval, long maxInterval)
+            throws Throwable {
         for (Method method : ApiClient.class.getDeclaredMethods()) {
             if (method.getName().equals(WAIT_FOR_REQUEST)) {
                  try {
-                    method.invoke(null, requestId, 80000, 4000, 2000);
+                    method.invoke(null, requestId, (int) timeout, (int) maxInterval, (int) initialInterval);
                  }
                  catch (InvocationTargetException e) {
                     Throwable target = e.getTargetException();
                     if (target instanceof ApiException) {
-                        ApiException apiEx = (ApiException)target;
-                        HttpResponse httpResponse = HttpResponse
-                                .builder()
-                                .body(apiEx.getResponseBody())
-                                .headers(apiEx.getResponseHeaders())
-                                .statusCode(apiEx.getCode())
-                                .build();
-                        return Response
-                                .builder()
-                                .result(apiEx.getResponseBody())
-                                .error(
-                                        Error
-                                                .builder()
-                                                .message(apiEx.getMessage())
-                                                .apiResponse(httpResponse)
-                                                .build()
-                                )
-                                .httpResponse(httpResponse)
-                                .build();
+                        return apiErrorResponse((ApiException) target);
                     } else {
                         throw target;
                     }
@@ -316,60 +699,76 @@ private String setAuthToken(String token, String authType) {
         return Response.builder().build();
     }
 
-    public static Object[] getParameterList(Method method, Map<String, Object> testParams) {
-        Paranamer info = new CachingParanamer(new AnnotationParanamer(new BytecodeReadingParanamer()));
-        String[] methodParameterNames = info.lookupParameterNames(method);
-        Class<?>[] methodParameterTypes = method.getParameterTypes();
-        Map<String, Class<?>> methodParameterTypesMap = new HashMap<>();
-
-        int i = 0;
-        for (String pn : methodParameterNames) {
-            methodParameterTypesMap.put(pn, methodParameterTypes[i]);
-            i++;
-        }
-
-        List<Object> paramList = new ArrayList<>();
-
-        Gson gson = new Gson();
-
-        for (String parameterName : methodParameterNames) {
-            if (testParams.containsKey(parameterName) || testParams.containsKey(StringUtils.capitalize(parameterName))) {
-                Object testParameter = testParams.get(parameterName) == null ?
-                        testParams.get(StringUtils.capitalize(parameterName)) : testParams.get(parameterName);
-                Class<?> parameterType = methodParameterTypesMap.get(parameterName) == null ?
-                        methodParameterTypesMap.get(StringUtils.capitalize(parameterName)) :
-                        methodParameterTypesMap.get(parameterName);
-
-
-                if (testParameter instanceof Map || testParameter instanceof List) {
-                    paramList.add(gson.fromJson(gson.toJson(testParameter), parameterType));
-                } else if (parameterType.getName().contentEquals(UUID.class.getName())) {
-                    paramList.add(gson.fromJson(gson.toJson(testParameter), parameterType));
-                } else if (parameterType.getName().contentEquals(OffsetDateTime.class.getName())) {
-                    // FIX: Handle OffsetDateTime directly without Gson
-                    paramList.add(java.time.OffsetDateTime.parse((String) testParameter));
-                } else {
-                    paramList.add(testParameter);
-                }
+    private static long longParam(Map<String, Object> params, String name, long defaultValue) {
+        Object value = params.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+    }
 
-            } else {
-                paramList.add(null);
-            }
+    /* turns any error thrown while handling an input into a response carrying the error */
+    public static Response errorResponse(Throwable e) {
+
+        Error.ErrorBuilder errorBuilder =
+                Error
+                .builder()
+                .message(e.getMessage())
+                .stackTrace(Arrays.stream(e.getStackTrace()).map(
+                        element -> element.getClassName() + ":" + element.getMethodName() + "():" + element.getLineNumber()
+                ).collect(Collectors.toList()));
+
+        if (e instanceof ApiException) {
+            ApiException apiEx = (ApiException) e;
+            errorBuilder.apiResponse(
+                    HttpResponse
+                            .builder()
+                            .statusCode(apiEx.getCode())
+                            .headers(apiEx.getResponseHeaders())
+                            .body(apiEx.getResponseBody())
+                            .build()
+            );
         }
 
-        return paramList.toArray();
+        return Response
+                .builder()
+                .error(errorBuilder.build())
+                .build();
     }
 
+    /* the response of an api call that failed with an http error, carrying the api's response */
+    protected static Response apiErrorResponse(ApiException apiEx) {
+        HttpResponse httpResponse = HttpResponse
+                .builder()
+                .body(apiEx.getResponseBody())
+                .headers(apiEx.getResponseHeaders())
+                .statusCode(apiEx.getCode())
+                .build();
+        return Response
+                .builder()
+                .result(apiEx.getResponseBody())
+                .error(
+                        Error
+                                .builder()
+                                .message(apiEx.getMessage())
+                                .apiResponse(httpResponse)
+                                .build()
+                )
+                .httpResponse(httpResponse)
+                .build();
+    }
 
-    protected Set<Class<?>> getAccessibleMethods() {
-        Reflections reflections = new Reflections(new ConfigurationBuilder()
-                .setScanners(new SubTypesScanner(false /* don't exclude Object.class */), new ResourcesScanner())
-                .setUrls(ClasspathHelper.forPackage(BASE_PACKAGE_NAME))
-                .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix(BASE_PACKAGE_NAME))));
+    private static AttemptStats attemptStats(int attempts, long start, long waited) {
+        return AttemptStats
+                .builder()
+                .count(attempts)
+                .timeMs((System.nanoTime() - start) / 1e6)
+                .waitMs(waited / 1e6)
+                .build();
+    }
 
-        return reflections.getSubTypesOf(Object.class);
+    public static Object[] getParameterList(Method method, Map<String, Object> testParams) {
+        return ParameterBinder.of(method).bind(testParams);
     }
 
+
     protected String getRequestIdFromUrl(String url) {
 
         /* we assume a request url is of the form https://api.host/REQUESTID/status */
@@ -0,0 +1,384 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.utils.JsonUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * A local stand-in for the api, serving every operation of the operation index at its http method and path
+ * with a synthetic payload, for benchmarks and load tests that should not depend on the network.
+ *
+ * The payload of an operation is an instance of the sdk model it returns, filled in through reflection
+ * with made up values and serialized with gson, so the sdk parses it like a real response. It is built
+ * once per operation from a seed of the operation name, so runs are reproducible. Lists named 'items'
+ * hold the configured number of elements; enums prefer a settled state, e.g. DONE or AVAILABLE, so that
+ * waiting for a request ends. Every response waits for the configured latency first, and fails with a
+ * 429 or a 503 at the configured rates. Payloads carry an ETag and If-None-Match is answered with a 304.
+ * Mutations are accepted with a 202 and a Location header of a request that is already done.
+ *
+ * The driver uses it through IONOS_API_URL=http://localhost:<port>, optionally with a base path such as
+ * /cloudapi/v6: every operation is served under any prefix, and Location headers keep the prefix of the
+ * request. The headers follow what the driver's RetryPolicy and ResponseCache read, so that they can be
+ * exercised against the stub; their header names are shared with those classes.
+ */
+public class StubApiServer {
+
+    public static final int DEFAULT_ITEMS = 10;
+
+    private static final int BACKLOG = 128;
+    private static final int THREADS = 64;
+    /* nested models beyond this depth are left out, since the api models refer to each other */
+    private static final int MAX_DEPTH = 4;
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String ITEMS_FIELD = "items";
+    private static final String REQUEST_STATUS_PATH = "/requests/%s/status";
+    /* sent with an injected 429; RetryPolicy reads a number as seconds */
+    private static final String RETRY_AFTER_SECONDS = "1";
+    /* in order of preference */
+    private static final List<String> SETTLED_STATES = Arrays.asList("DONE", "AVAILABLE", "ACTIVE", "RUNNING");
+
+    private final Logger log = Logger.getLogger("stub-api-server");
+
+    private final OperationIndex operationIndex;
+    private final List<Route> routes = new ArrayList<>();
+    private final long latencyMillis;
+    private final int items;
+    private final double tooManyRequestsRate;
+    private final double serverErrorRate;
+    private final String modelPackage = ApiClient.class.getPackage().getName();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubApiServer(OperationIndex operationIndex, int port, long latencyMillis, int items,
+                         double tooManyRequestsRate, double serverErrorRate) throws IOException {
+        if (latencyMillis < 0 || items < 0 || tooManyRequestsRate < 0 || serverErrorRate < 0
+                || tooManyRequestsRate + serverErrorRate > 1) {
+            throw new IllegalArgumentException("latency and items must not be negative, the error rates must add up to at most 1");
+        }
+
+        this.operationIndex = operationIndex;
+        this.latencyMillis = latencyMillis;
+        this.items = items;
+        this.tooManyRequestsRate = tooManyRequestsRate;
+        this.serverErrorRate = serverErrorRate;
+
+        for (Operation operation : operationIndex.getOperations()) {
+            if (operation.getPath() != null && operation.getHttpMethod() != null) {
+                routes.add(new Route(operation));
+            }
+        }
+        /* literal segments win over path params, e.g. /datacenters/servers over /datacenters/{datacenterId} */
+        routes.sort(Comparator.comparingInt((Route route) -> route.literals).reversed());
+
+        /* a fixed pool, so that slow responses under load queue up instead of taking a thread each */
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "stub-api-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        log.info("serving " + routes.size() + " operations on port " + server.getAddress().getPort()
+                + " with " + latencyMillis + "ms latency, " + items + " items per list, "
+                + tooManyRequestsRate + " 429 rate and " + serverErrorRate + " 503 rate");
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Route route = find(exchange.getRequestMethod(), path);
+            if (route == null) {
+                sendError(exchange, 404, "no operation for " + exchange.getRequestMethod() + " " + path);
+                return;
+            }
+
+            double chance = ThreadLocalRandom.current().nextDouble();
+            if (chance < tooManyRequestsRate) {
+                exchange.getResponseHeaders().set(RetryPolicy.RETRY_AFTER_HEADER, RETRY_AFTER_SECONDS);
+                sendError(exchange, RetryPolicy.TOO_MANY_REQUESTS, "rate limit exceeded");
+                return;
+            }
+            if (chance < tooManyRequestsRate + serverErrorRate) {
+                sendError(exchange, 503, "service unavailable");
+                return;
+            }
+
+            respond(exchange, route);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "stub server stopping");
+        } catch (Throwable e) {
+            log.warning("could not serve " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, Route route) throws IOException, ReflectiveOperationException {
+        /* the request body is not looked at, but has to be read for the connection to be reused */
+        byte[] buffer = new byte[8192];
+        try (InputStream body = exchange.getRequestBody()) {
+            int read;
+            do {
+                read = body.read(buffer);
+            } while (read >= 0);
+        }
+
+        boolean mutation = !"GET".equals(route.operation.getHttpMethod());
+        if (mutation) {
+            exchange.getResponseHeaders().set("Location", "http://" + exchange.getRequestHeaders().getFirst("Host")
+                    + route.prefix(exchange.getRequestURI().getPath()) + String.format(REQUEST_STATUS_PATH, UUID.randomUUID()));
+        }
+
+        byte[] payload = route.payload();
+        if (payload == null) {
+            exchange.sendResponseHeaders(mutation ? 202 : 200, -1);
+            return;
+        }
+
+        /* the etag is opaque to the ResponseCache, which sends it back as is */
+        if (!mutation && route.etag.equals(exchange.getRequestHeaders().getFirst(ResponseCache.IF_NONE_MATCH_HEADER))) {
+            exchange.getResponseHeaders().set(ResponseCache.ETAG_HEADER, route.etag);
+            exchange.sendResponseHeaders(ResponseCache.NOT_MODIFIED, -1);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.getResponseHeaders().set(ResponseCache.ETAG_HEADER, route.etag);
+        exchange.sendResponseHeaders(mutation ? 202 : 200, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+
+    private Route find(String method, String path) {
+        for (Route route : routes) {
+            if (route.operation.getHttpMethod().equals(method) && route.pattern.matcher(path).matches()) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /* answers with an error in the json format of the api */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("httpStatus", status);
+        error.put("messages", Collections.singletonList(Collections.singletonMap("message", message)));
+        byte[] body = JsonUtils.MAPPER.writeValueAsBytes(error);
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /* the path template of an operation as a pattern after any prefix, and its payload once it is built */
+    private class Route {
+        final Operation operation;
+        final Pattern pattern;
+        final int literals;
+        String etag;
+        private byte[] payload;
+        private boolean built;
+
+        Route(Operation operation) {
+            this.operation = operation;
+
+            StringBuilder regex = new StringBuilder();
+            int literalSegments = 0;
+            for (String segment : operation.getPath().split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    regex.append("/[^/]+");
+                } else {
+                    regex.append('/').append(Pattern.quote(segment));
+                    literalSegments++;
+                }
+            }
+            /* a path without literal segments, e.g. the api root, would match under any prefix, so it has none */
+            this.pattern = Pattern.compile((literalSegments == 0 ? "()" : "((?:/[^/]+)*?)") + regex + "/?");
+            this.literals = literalSegments;
+        }
+
+        /* the base path in front of the operation's path, e.g. /cloudapi/v6 */
+        String prefix(String path) {
+            Matcher matcher = pattern.matcher(path);
+            return matcher.matches() ? matcher.group(1) : "";
+        }
+
+        /* the json of a synthetic result, null for an operation without one */
+        synchronized byte[] payload() throws ReflectiveOperationException {
+            if (built) {
+                return payload;
+            }
+
+            Type resultType = resultType(operationIndex.getMethod(operation));
+            Object result = resultType == null ? null :
+                    new Synthesizer(new Random(operation.getName().hashCode())).value(resultType, operation.getName(), 0);
+            if (result != null) {
+                payload = JsonUtils.GSON.toJson(result).getBytes(StandardCharsets.UTF_8);
+                etag = "\"" + Integer.toHexString(Arrays.hashCode(payload)) + "\"";
+            }
+            built = true;
+            return payload;
+        }
+    }
+
+    /* T of the ApiResponse<T> returned by a *WithHttpInfo method */
+    private static Type resultType(Method method) {
+        Type type = method.getGenericReturnType();
+        if (!(type instanceof ParameterizedType)) {
+            return null;
+        }
+
+        Type result = ((ParameterizedType) type).getActualTypeArguments()[0];
+        return result == Void.class ? null : result;
+    }
+
+    /* makes up values for sdk models, from a seeded random so that they are the same on every run */
+    private class Synthesizer {
+        private final Random random;
+        private int counter;
+
+        Synthesizer(Random random) {
+            this.random = random;
+        }
+
+        Object value(Type type, String name, int depth) throws ReflectiveOperationException {
+            if (type instanceof ParameterizedType) {
+                ParameterizedType parameterized = (ParameterizedType) type;
+                Class<?> raw = (Class<?>) parameterized.getRawType();
+
+                if (List.class.isAssignableFrom(raw) || Set.class.isAssignableFrom(raw)) {
+                    Collection<Object> values = List.class.isAssignableFrom(raw) ? new ArrayList<>() : new LinkedHashSet<>();
+                    int size = ITEMS_FIELD.equals(name) && depth <= 1 ? items : depth < MAX_DEPTH ? 1 : 0;
+                    for (int i = 0; i < size; i++) {
+                        Object value = value(parameterized.getActualTypeArguments()[0], name, depth + 1);
+                        if (value != null) {
+                            values.add(value);
+                        }
+                    }
+                    return values;
+                }
+                if (Map.class.isAssignableFrom(raw)) {
+                    return new LinkedHashMap<>();
+                }
+                return null;
+            }
+            if (!(type instanceof Class)) {
+                return null;
+            }
+
+            Class<?> cls = (Class<?>) type;
+            if (cls == String.class) {
+                return "id".equals(name) ? new UUID(random.nextLong(), random.nextLong()).toString() : name + "-" + (++counter);
+            }
+            if (cls == Integer.class || cls == int.class) {
+                return 1 + random.nextInt(100);
+            }
+            if (cls == Long.class || cls == long.class) {
+                return (long) (1 + random.nextInt(100000));
+            }
+            if (cls == Float.class || cls == float.class) {
+                return 1 + random.nextInt(100) / 4f;
+            }
+            if (cls == Double.class || cls == double.class) {
+                return 1 + random.nextInt(100) / 4d;
+            }
+            if (cls == BigDecimal.class) {
+                return BigDecimal.valueOf(1 + random.nextInt(100));
+            }
+            if (cls == Boolean.class || cls == boolean.class) {
+                return random.nextBoolean();
+            }
+            if (cls.isEnum()) {
+                return enumValue(cls);
+            }
+            /* dates and other library types are left out, they need the sdk's own type adapters */
+            if (depth > MAX_DEPTH || !cls.getName().startsWith(modelPackage) || Modifier.isAbstract(cls.getModifiers())) {
+                return null;
+            }
+            return model(cls, depth);
+        }
+
+        private Object model(Class<?> cls, int depth) throws ReflectiveOperationException {
+            Constructor<?> constructor;
+            try {
+                constructor = cls.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+            constructor.setAccessible(true);
+            Object model = constructor.newInstance();
+
+            for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                        continue;
+                    }
+
+                    Object value = value(field.getGenericType(), field.getName(), depth + 1);
+                    if (value != null) {
+                        field.setAccessible(true);
+                        field.set(model, value);
+                    }
+                }
+            }
+            return model;
+        }
+
+        private Object enumValue(Class<?> cls) {
+            Object[] constants = cls.getEnumConstants();
+            for (String state : SETTLED_STATES) {
+                for (Object constant : constants) {
+                    if (((Enum<?>) constant).name().equals(state)) {
+                        return constant;
+                    }
+                }
+            }
+            return constants.length == 0 ? null : constants[0];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ionoscloud.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.gson.Gson;
+
+/*
+ * Mapper instances shared by the whole driver. Both are thread-safe once configured, so there is no
+ * need to build new ones per call.
+ */
+public final class JsonUtils {
+
+    /* jackson is used to parse the input and to write the response */
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /* gson is used for everything that touches sdk models, since the sdk is generated with gson adapters */
+    public static final Gson GSON = new Gson();
+
+    private JsonUtils() {
+    }
+}
@@ -0,0 +1,120 @@
+package com.ionoscloud.utils;
+
+import com.ionoscloud.models.RawJson;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Collects serialized json in memory up to a threshold, and in a temp file beyond it, so that the heap
+ * never holds more than the threshold of a large result.
+ *
+ * The threshold is set in chars through IONOS_DRIVER_SPILL_THRESHOLD (default 16M); 0 keeps every
+ * result in memory. Temp files are created in java.io.tmpdir and deleted once their response is written
+ * (see Response.release). The ones still around when the jvm exits, e.g. of a response that failed to be
+ * written, are deleted by a shutdown hook.
+ */
+public class SpillingWriter extends Writer {
+
+    public static final String THRESHOLD_ENV_VAR = "IONOS_DRIVER_SPILL_THRESHOLD";
+
+    private static final long DEFAULT_THRESHOLD = 16 * 1024 * 1024;
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private static final long THRESHOLD = getThresholdFromEnv();
+
+    /* temp files not deleted yet */
+    private static final Set<File> SPILLED_FILES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (File file : SPILLED_FILES) {
+                file.delete();
+            }
+        }, "spilled-file-cleanup"));
+    }
+
+    private final long threshold;
+    private StringBuilder buffer = new StringBuilder();
+    private File file;
+    private Writer fileWriter;
+
+    public SpillingWriter() {
+        this(THRESHOLD);
+    }
+
+    public SpillingWriter(long threshold) {
+        this.threshold = threshold;
+    }
+
+    private static long getThresholdFromEnv() {
+        String threshold = System.getenv(THRESHOLD_ENV_VAR);
+        return threshold == null || threshold.trim().isEmpty() ? DEFAULT_THRESHOLD : Long.parseLong(threshold.trim());
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        if (fileWriter == null && threshold > 0 && buffer.length() + (long) length > threshold) {
+            spill();
+        }
+
+        if (fileWriter != null) {
+            fileWriter.write(chars, offset, length);
+        } else {
+            buffer.append(chars, offset, length);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        if (fileWriter == null && threshold > 0 && buffer.length() + (long) length > threshold) {
+            spill();
+        }
+
+        if (fileWriter != null) {
+            fileWriter.write(text, offset, length);
+        } else {
+            buffer.append(text, offset, offset + length);
+        }
+    }
+
+    /* moves what was written so far into a new temp file, which takes all further writes */
+    private void spill() throws IOException {
+        file = Files.createTempFile("ionos-driver-", ".json").toFile();
+        SPILLED_FILES.add(file);
+        fileWriter = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), FILE_BUFFER_SIZE);
+        fileWriter.write(buffer.toString());
+        buffer = null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileWriter != null) {
+            fileWriter.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileWriter != null) {
+            fileWriter.close();
+        }
+    }
+
+    /* deletes a temp file of a spilled value; one that cannot be deleted now is left to the shutdown hook */
+    public static void delete(File file) {
+        if (file.delete() || !file.exists()) {
+            SPILLED_FILES.remove(file);
+        }
+    }
+
+    /* the json written, in memory or in the temp file; closes the writer */
+    public RawJson toRawJson() throws IOException {
+        close();
+        return file != null ? new RawJson(file) : new RawJson(buffer.toString());
+    }
+}
@@ -0,0 +1,86 @@
+package com.ionoscloud.models;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.services.OperationIndex;
+import com.ionoscloud.services.SdkService;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class InputTest {
+
+    private static Input parse(String json) throws Exception {
+        return Input.get(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertInvalid(String json, String message) throws Exception {
+        try {
+            parse(json).validate();
+            fail("expected " + message);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    @Test
+    public void acceptsParamsWithNullValues() throws Exception {
+        parse("{\"operation\": \"datacentersGet\", \"params\": [{\"name\": \"depth\", \"value\": null}, {\"name\": \"pretty\"}]}").validate();
+    }
+
+    @Test
+    public void requiresAnOperation() throws Exception {
+        assertInvalid("{\"params\": []}", "invalid input: 'operation' cannot be empty; ");
+        assertInvalid("{\"operation\": \" \"}", "invalid input: 'operation' cannot be empty; ");
+    }
+
+    @Test
+    public void requiresUsableCredentials() throws Exception {
+        parse("{\"operation\": \"datacentersGet\", \"credentials\": {\"token\": \"t\"}}").validate();
+        parse("{\"operation\": \"datacentersGet\", \"credentials\": {\"username\": \"u\", \"password\": \"p\"}}").validate();
+        parse("{\"operation\": \"datacentersGet\", \"credentials\": {\"ref\": \"other\"}}").validate();
+        assertInvalid("{\"operation\": \"datacentersGet\", \"credentials\": {\"username\": \"u\"}}",
+                "invalid input: 'credentials' need a token, a username and password, or a ref; ");
+    }
+
+    @Test
+    public void checksTheOperationsOfABatch() throws Exception {
+        parse("{\"operations\": [{\"operation\": \"datacentersGet\"}]}").validate();
+        assertInvalid("{\"operations\": [{\"operation\": \"datacentersGet\"}, {\"id\": \"x\"}, null]}",
+                "invalid input: 'operations[1].operation' cannot be empty; 'operations[2]' must not be null; ");
+    }
+
+    @Test
+    public void bindsANullParamAsNull() throws Throwable {
+        Operation operation = Operation
+                .builder()
+                .name("get")
+                .apiClass(TestApi.class.getName())
+                .method("getWithHttpInfo")
+                .parameterNames(Arrays.asList("id", "depth"))
+                .httpMethod("GET")
+                .build();
+        SdkService sdkService = new SdkService(new ApiClient(), OperationIndex.of(Collections.singletonList(operation)));
+
+        Input input = parse("{\"operation\": \"get\", \"params\": [{\"name\": \"id\", \"value\": \"1\"}, {\"name\": \"depth\", \"value\": null}]}");
+        input.validate();
+        Response response = sdkService.run(input);
+
+        assertNull(response.getError());
+        assertEquals("\"get(1, null)\"", response.getResult().toString());
+    }
+
+    /* an api class like the sdk's */
+    public static class TestApi {
+        public TestApi(ApiClient apiClient) {
+        }
+
+        public ApiResponse<String> getWithHttpInfo(String id, Integer depth) {
+            return new ApiResponse<>(200, new HashMap<>(), "get(" + id + ", " + depth + ")");
+        }
+    }
+}
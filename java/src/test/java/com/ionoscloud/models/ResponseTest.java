@@ -0,0 +1,132 @@
+package com.ionoscloud.models;
+
+import com.ionoscloud.utils.JsonUtils;
+import com.ionoscloud.utils.SpillingWriter;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ResponseTest {
+
+    /* json the way the api may format it, which is passed on as is instead of being reformatted */
+    private static final String RESULT = "{\"id\": \"1\",  \"items\" : [1, 2.50, {\"name\": \"caf\u00e9\"}], \"empty\": {}}";
+
+    private static RawJson spilled(String json) throws IOException {
+        SpillingWriter writer = new SpillingWriter(1);
+        writer.write(json);
+        RawJson value = writer.toRawJson();
+        assertTrue(value.isSpilled());
+        return value;
+    }
+
+    private static Response response(RawJson result) {
+        return Response
+                .builder()
+                .result(result)
+                .httpResponse(HttpResponse
+                        .builder()
+                        .statusCode(200)
+                        .body(result.isSpilled() ? result.asText() : result.toString())
+                        .build())
+                .build();
+    }
+
+    private static String write(Response response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void writesRawJsonVerbatim() throws IOException {
+        String json = write(response(new RawJson(RESULT)));
+
+        assertTrue(json, json.contains("\"result\":" + RESULT));
+        assertEquals(RESULT, JsonUtils.MAPPER.readTree(json).path("httpResponse").path("body").asText());
+    }
+
+    @Test
+    public void writesSpilledRawJsonVerbatim() throws IOException {
+        RawJson result = spilled(RESULT);
+        String json = write(response(result));
+
+        assertTrue(json, json.contains("\"result\":" + RESULT));
+        assertEquals(RESULT, JsonUtils.MAPPER.readTree(json).path("httpResponse").path("body").asText());
+        assertEquals(json, write(response(new RawJson(RESULT))));
+        result.release();
+    }
+
+    @Test
+    public void writesRawJsonInsideAList() throws IOException {
+        Response response = Response
+                .builder()
+                .responses(Arrays.asList(response(new RawJson("[1]")), response(new RawJson("[2]"))))
+                .build();
+
+        String json = write(response);
+        assertTrue(json, json.contains("\"result\":[1]"));
+        assertTrue(json, json.contains("\"result\":[2]"));
+        assertEquals(2, JsonUtils.MAPPER.readTree(json).path("responses").size());
+    }
+
+    @Test
+    public void releaseDeletesTheFilesOfAllResponses() throws IOException {
+        RawJson first = spilled("[1]");
+        RawJson second = spilled("[2]");
+        Response response = Response
+                .builder()
+                .result(first)
+                .responses(Collections.singletonList(response(second)))
+                .build();
+        File firstFile = file(first);
+        File secondFile = file(second);
+        assertTrue(firstFile.exists() && secondFile.exists());
+
+        response.release();
+
+        assertFalse(firstFile.exists());
+        assertFalse(secondFile.exists());
+    }
+
+    @Test
+    public void transfersSpilledResultsIntact() throws IOException {
+        /* decimals too long for a double come through as they are */
+        String result = "{\"id\": \"1\", \"price\": 0.12345678901234567890123, \"large\": 12345678901234567890.50,"
+                + " \"items\": [1, 2.50, {\"name\": \"caf\u00e9\"}], \"empty\": {}, \"none\": null}";
+        String expected = result.replace(" ", "");
+        RawJson spilled = spilled(result);
+        Response response = response(spilled);
+
+        Response transferred;
+        try (Reader json = response.toTransferJson()) {
+            transferred = Response.fromTransferJson(json);
+        }
+        spilled.release();
+
+        /* the transfer copies the json token by token, so only the whitespace between tokens is gone */
+        assertEquals(expected, transferred.getResult().toString());
+        assertEquals(expected, JsonUtils.MAPPER.readTree(write(transferred)).path("httpResponse").path("body").asText());
+        transferred.release();
+    }
+
+    /* the temp file of a spilled value, found through the file name it is written to */
+    private static File file(RawJson value) throws IOException {
+        String content = value.toString();
+        File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("ionos-driver-") && name.endsWith(".json"));
+        File found = null;
+        for (File file : files == null ? new File[0] : files) {
+            if (file.lastModified() >= System.currentTimeMillis() - 60000
+                    && content.equals(new String(java.nio.file.Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8))) {
+                found = file;
+            }
+        }
+        assertNotNull(found);
+        return found;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.auth.ApiKeyAuth;
+import com.ionoscloud.auth.HttpBasicAuth;
+import com.ionoscloud.models.Credentials;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ApiClientPoolTest {
+
+    private static Credentials token(String token) {
+        Credentials credentials = new Credentials();
+        credentials.setToken(token);
+        return credentials;
+    }
+
+    private static Credentials basic(String username, String password) {
+        Credentials credentials = new Credentials();
+        credentials.setUsername(username);
+        credentials.setPassword(password);
+        return credentials;
+    }
+
+    private static Credentials ref(String ref) {
+        Credentials credentials = new Credentials();
+        credentials.setRef(ref);
+        return credentials;
+    }
+
+    @Test
+    public void reusesTheClientOfAnIdentity() {
+        ApiClientPool pool = new ApiClientPool(new ApiClient(), 4);
+
+        ClientContext client = pool.get(token("token-a"));
+        assertSame(client, pool.get(token("token-a")));
+        assertSame(pool.get(basic("user", "secret")), pool.get(basic("user", "secret")));
+        /* a ref next to complete credentials is not looked up, the credentials are the identity */
+        Credentials referenced = token("token-a");
+        referenced.setRef("tenant-a");
+        assertSame(client, pool.get(referenced));
+    }
+
+    @Test
+    public void keepsIdentitiesApart() {
+        ApiClientPool pool = new ApiClientPool(new ApiClient(), 8);
+
+        ClientContext tokenA = pool.get(token("token-a"));
+        ClientContext tokenB = pool.get(token("token-b"));
+        ClientContext user = pool.get(basic("user", "secret"));
+        ClientContext otherPassword = pool.get(basic("user", "other"));
+        /* a username and password that look like a token are still a different identity */
+        ClientContext lookalike = pool.get(basic("token", "token-a"));
+
+        assertNotSame(tokenA, tokenB);
+        assertNotSame(tokenA, user);
+        assertNotSame(user, otherPassword);
+        assertNotSame(tokenA, lookalike);
+        assertNotSame(tokenA.getApiClient(), tokenB.getApiClient());
+
+        assertEquals("token-a", ((ApiKeyAuth) tokenA.getApiClient().getAuthentication("Token Authentication")).getApiKey());
+        assertEquals("token-b", ((ApiKeyAuth) tokenB.getApiClient().getAuthentication("Token Authentication")).getApiKey());
+        HttpBasicAuth basicAuth = (HttpBasicAuth) otherPassword.getApiClient().getAuthentication("Basic Authentication");
+        assertEquals("user", basicAuth.getUsername());
+        assertEquals("other", basicAuth.getPassword());
+    }
+
+    @Test
+    public void sharesTheBaseClientsSettings() {
+        ApiClient baseClient = new ApiClient();
+        baseClient.setBasePath("http://localhost:1234/cloudapi/v6");
+        ClientContext client = new ApiClientPool(baseClient, 4).get(token("token-a"));
+
+        assertEquals("http://localhost:1234/cloudapi/v6", client.getApiClient().getBasePath());
+        assertSame(baseClient.getHttpClient(), client.getApiClient().getHttpClient());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedClient() {
+        ApiClientPool pool = new ApiClientPool(new ApiClient(), 2);
+
+        ClientContext a = pool.get(token("a"));
+        ClientContext b = pool.get(token("b"));
+        /* using a makes b the eldest entry */
+        assertSame(a, pool.get(token("a")));
+        pool.get(token("c"));
+
+        assertSame(a, pool.get(token("a")));
+        assertNotSame(b, pool.get(token("b")));
+    }
+
+    @Test
+    public void rejectsAnUnknownRef() {
+        try {
+            new ApiClientPool(new ApiClient(), 4).get(ref("no-such-tenant-" + System.nanoTime()));
+            fail("expected an unknown ref to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("no credentials found for ref 'no-such-tenant-"));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Param;
+import com.ionoscloud.models.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class BatchExecutorTest {
+
+    private SdkService sdkService;
+
+    @Before
+    public void setUp() {
+        TestApi.CALLS.clear();
+        sdkService = new SdkService(new ApiClient(), OperationIndex.of(Arrays.asList(
+                operation("create", "createWithHttpInfo", "POST", "name"),
+                operation("attach", "attachWithHttpInfo", "POST", "datacenterId", "value"),
+                operation("fail", "failWithHttpInfo", "GET")
+        )));
+    }
+
+    private static Operation operation(String name, String method, String httpMethod, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .apiClass(TestApi.class.getName())
+                .method(method)
+                .parameterNames(Arrays.asList(parameterNames))
+                .httpMethod(httpMethod)
+                .build();
+    }
+
+    private static Input input(String id, String operation, Object... params) {
+        List<Param> paramList = new ArrayList<>();
+        for (int i = 0; i < params.length; i += 2) {
+            Param param = new Param();
+            param.setName((String) params[i]);
+            param.setValue(params[i + 1]);
+            paramList.add(param);
+        }
+        return Input.builder().id(id).operation(operation).params(paramList).build();
+    }
+
+    private Response run(Input... operations) throws InterruptedException {
+        return new BatchExecutor(sdkService).run(Input.builder().operations(Arrays.asList(operations)).build());
+    }
+
+    @Test
+    public void resolvesReferencesToOtherResponses() throws InterruptedException {
+        Response response = run(
+                input("datacenter", "create", "name", "dc"),
+                input("server", "attach", "datacenterId", "${datacenter/result/id}", "value", "server of ${datacenter/result/properties/name}")
+        );
+
+        assertNull(response.getResponses().get(0).getError());
+        assertNull(response.getResponses().get(1).getError());
+        assertEquals(Arrays.asList("create(dc)", "attach(id-dc, server of dc)"), TestApi.CALLS);
+    }
+
+    @Test
+    public void keepsTheTypeOfAWholeReference() throws InterruptedException {
+        Response response = run(
+                input("datacenter", "create", "name", "dc"),
+                input("server", "attach", "datacenterId", "${datacenter/result/id}", "value", "${datacenter/result/properties/tags}")
+        );
+
+        assertNull(response.getResponses().get(1).getError());
+        /* the list is passed as a list, where an embedded reference would have been written as its json */
+        assertEquals("attach(id-dc, [a, b])", TestApi.CALLS.get(1));
+    }
+
+    @Test
+    public void runsReferencedOperationsFirst() throws InterruptedException {
+        Response response = run(
+                input("server", "attach", "datacenterId", "${datacenter/result/id}", "value", "x"),
+                input("datacenter", "create", "name", "dc")
+        );
+
+        /* the responses keep the order of the operations, the calls follow the references */
+        assertEquals("server", response.getResponses().get(0).getId());
+        assertEquals("datacenter", response.getResponses().get(1).getId());
+        assertEquals(Arrays.asList("create(dc)", "attach(id-dc, x)"), TestApi.CALLS);
+    }
+
+    @Test
+    public void failsReferencesThatDoNotResolve() throws InterruptedException {
+        Response response = run(
+                input("datacenter", "create", "name", "dc"),
+                input("server", "attach", "datacenterId", "${datacenter/result/missing}", "value", "x")
+        );
+
+        assertNull(response.getResponses().get(0).getError());
+        assertEquals("reference ${datacenter/result/missing} not found", response.getResponses().get(1).getError().getMessage());
+        assertEquals(Collections.singletonList("create(dc)"), TestApi.CALLS);
+    }
+
+    @Test
+    public void skipsOperationsWhoseDependenciesFailed() throws InterruptedException {
+        Input server = input("server", "create", "name", "web");
+        server.setDependsOn(Collections.singletonList("broken"));
+        Response response = run(
+                input("broken", "fail"),
+                server
+        );
+
+        assertNotNull(response.getResponses().get(0).getError());
+        assertEquals("dependency 'broken' failed", response.getResponses().get(1).getError().getMessage());
+        assertEquals(Collections.singletonList("fail()"), TestApi.CALLS);
+    }
+
+    @Test
+    public void detectsDependencyCycles() throws InterruptedException {
+        Input first = input("first", "create", "name", "${second/result/id}");
+        Input second = input("second", "create", "name", "x");
+        second.setDependsOn(Collections.singletonList("first"));
+
+        try {
+            run(first, second);
+            fail("expected a dependency cycle");
+        } catch (IllegalArgumentException e) {
+            assertEquals("dependency cycle at batch operation 'first'", e.getMessage());
+        }
+        assertTrue(TestApi.CALLS.isEmpty());
+    }
+
+    @Test
+    public void detectsSelfReferences() throws InterruptedException {
+        try {
+            run(input("datacenter", "create", "name", "${datacenter/result/id}"));
+            fail("expected a dependency cycle");
+        } catch (IllegalArgumentException e) {
+            assertEquals("dependency cycle at batch operation 'datacenter'", e.getMessage());
+        }
+    }
+
+    @Test
+    public void rejectsUnknownAndDuplicateIds() throws InterruptedException {
+        try {
+            run(input("server", "attach", "datacenterId", "${datacenter/result/id}", "value", "x"));
+            fail("expected an unknown id");
+        } catch (IllegalArgumentException e) {
+            assertEquals("unknown batch operation id 'datacenter'", e.getMessage());
+        }
+
+        try {
+            run(input("datacenter", "create", "name", "a"), input("datacenter", "create", "name", "b"));
+            fail("expected a duplicate id");
+        } catch (IllegalArgumentException e) {
+            assertEquals("duplicate batch operation id 'datacenter'", e.getMessage());
+        }
+        assertTrue(TestApi.CALLS.isEmpty());
+    }
+
+    @Test
+    public void identifiesOperationsWithoutIdByPosition() throws InterruptedException {
+        Response response = run(
+                input(null, "create", "name", "dc"),
+                input(null, "attach", "datacenterId", "${1/result/id}", "value", "x")
+        );
+
+        assertEquals("1", response.getResponses().get(0).getId());
+        assertEquals("2", response.getResponses().get(1).getId());
+        assertEquals("attach(id-dc, x)", TestApi.CALLS.get(1));
+    }
+
+    /* an api class like the sdk's, recording its calls */
+    public static class TestApi {
+        static final List<String> CALLS = new CopyOnWriteArrayList<>();
+
+        public TestApi(ApiClient apiClient) {
+        }
+
+        public ApiResponse<Map<String, Object>> createWithHttpInfo(String name) {
+            CALLS.add("create(" + name + ")");
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("name", name);
+            properties.put("tags", Arrays.asList("a", "b"));
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", "id-" + name);
+            data.put("properties", properties);
+            return new ApiResponse<>(202, new HashMap<>(), data);
+        }
+
+        public ApiResponse<Map<String, Object>> attachWithHttpInfo(String datacenterId, Object value) {
+            CALLS.add("attach(" + datacenterId + ", " + value + ")");
+            return new ApiResponse<>(202, new HashMap<>(), Collections.<String, Object>singletonMap("id", datacenterId));
+        }
+
+        public ApiResponse<Object> failWithHttpInfo() throws ApiException {
+            CALLS.add("fail()");
+            throw new ApiException("not found", 404, new HashMap<>(), "{\"httpStatus\": 404}");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.utils.JsonUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DriverServerTest {
+
+    private DriverServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        SdkService sdkService = new SdkService(new ApiClient(), OperationIndex.of(Arrays.asList(
+                operation("get", "getWithHttpInfo", "id"),
+                operation("list", "listWithHttpInfo", Paginator.OFFSET_PARAM, Paginator.LIMIT_PARAM)
+        )));
+        server = new DriverServer(sdkService, 0, 2);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    private static Operation operation(String name, String method, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .apiClass(TestApi.class.getName())
+                .method(method)
+                .parameterNames(Arrays.asList(parameterNames))
+                .httpMethod("GET")
+                .build();
+    }
+
+    @Test
+    public void reportsItsHealth() throws IOException {
+        Exchange health = call("GET", "/health", null);
+
+        assertEquals(200, health.status);
+        JsonNode body = health.json();
+        assertEquals("ok", body.path("status").asText());
+        assertTrue(body.path("warm").asBoolean());
+        assertEquals(2, body.path("operations").asInt());
+    }
+
+    @Test
+    public void listsTheOperations() throws IOException {
+        Exchange operations = call("GET", "/operations", null);
+
+        assertEquals(200, operations.status);
+        List<String> names = new ArrayList<>();
+        for (JsonNode operation : operations.json()) {
+            names.add(operation.path("name").asText());
+        }
+        assertEquals(Arrays.asList("get", "list"), names);
+    }
+
+    @Test
+    public void runsAnInput() throws IOException {
+        Exchange run = call("POST", "/run", "{\"id\": \"call-1\", \"operation\": \"get\", \"params\": [{\"name\": \"id\", \"value\": \"1\"}]}");
+
+        assertEquals(200, run.status);
+        assertEquals("application/json", run.contentType);
+        JsonNode body = run.json();
+        assertEquals("call-1", body.path("id").asText());
+        assertEquals("1", body.path("result").path("id").asText());
+        assertEquals(200, body.path("httpResponse").path("statusCode").asInt());
+    }
+
+    @Test
+    public void answersApiErrorsWithAnOk() throws IOException {
+        Exchange run = call("POST", "/run", "{\"operation\": \"get\", \"params\": [{\"name\": \"id\", \"value\": \"missing\"}]}");
+
+        /* the api's 404 is the result of the call, not a failure of the driver */
+        assertEquals(200, run.status);
+        assertEquals(404, run.json().path("error").path("apiResponse").path("statusCode").asInt());
+    }
+
+    @Test
+    public void answersDriverFailuresWithAnErrorStatus() throws IOException {
+        assertEquals(400, call("POST", "/run", "{\"operation\": ").status);
+        assertEquals(400, call("POST", "/run", "{\"params\": []}").status);
+        assertEquals(400, call("POST", "/run", "{\"operation\": \"get\", \"params\": [{\"name\": \"id\", \"value\": 1}, {\"name\": \"id\", \"value\": 2}]}").status);
+
+        Exchange unknown = call("POST", "/run", "{\"operation\": \"missing\"}");
+        assertEquals(404, unknown.status);
+        assertNotNull(unknown.json().path("error").path("message").asText(null));
+    }
+
+    @Test
+    public void streamsThePagesOfAList() throws IOException {
+        Exchange run = call("POST", "/run", "{\"id\": \"pages\", \"operation\": \"list\", \"paginate\": true, \"pageSize\": 2, \"concurrency\": 1}");
+
+        assertEquals(200, run.status);
+        assertEquals("application/x-ndjson", run.contentType);
+        String[] lines = run.body.split("\n");
+        assertEquals(4, lines.length);
+
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JsonNode page = JsonUtils.MAPPER.readTree(lines[i]);
+            assertEquals("pages", page.path("id").asText());
+            offsets.add(page.path("page").path("offset").asInt());
+        }
+        assertEquals(Arrays.asList(0, 2, 4), offsets);
+
+        /* the summary comes last */
+        JsonNode summary = JsonUtils.MAPPER.readTree(lines[3]);
+        assertEquals("pages", summary.path("id").asText());
+        assertEquals(5, summary.path("page").path("items").asInt());
+        assertEquals(3, summary.path("page").path("pages").asInt());
+    }
+
+    @Test
+    public void reportsAndResetsMetrics() throws IOException {
+        call("POST", "/run", "{\"operation\": \"get\", \"params\": [{\"name\": \"id\", \"value\": \"1\"}]}");
+
+        JsonNode metrics = call("GET", "/metrics?reset=true", null).json();
+        assertEquals(1, metrics.path("get").path(PhaseTimer.INVOKE).path("count").asInt());
+        assertEquals(1, metrics.path("get").path(PhaseTimer.WRITE).path("count").asInt());
+
+        assertEquals(0, call("GET", "/metrics", null).json().size());
+    }
+
+    @Test
+    public void rejectsOtherMethods() throws IOException {
+        assertEquals(405, call("GET", "/run", null).status);
+        assertEquals(405, call("POST", "/health", "{}").status);
+        assertEquals(405, call("DELETE", "/operations", null).status);
+        assertEquals(405, call("POST", "/metrics", "{}").status);
+    }
+
+    private Exchange call(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Exchange exchange = new Exchange();
+        exchange.status = connection.getResponseCode();
+        exchange.contentType = connection.getContentType();
+        InputStream in = exchange.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[4096];
+                for (int read; (read = stream.read(buffer)) > 0; ) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        exchange.body = new String(content.toByteArray(), StandardCharsets.UTF_8);
+        connection.disconnect();
+        return exchange;
+    }
+
+    private static class Exchange {
+        int status;
+        String contentType;
+        String body;
+
+        JsonNode json() throws IOException {
+            return JsonUtils.MAPPER.readTree(body);
+        }
+    }
+
+    /* a resource lookup and a list of five items, like the sdk's api classes */
+    public static class TestApi {
+        public TestApi(ApiClient apiClient) {
+        }
+
+        public ApiResponse<Map<String, Object>> getWithHttpInfo(String id) throws ApiException {
+            if ("missing".equals(id)) {
+                throw new ApiException("not found", 404, new HashMap<>(), "{\"httpStatus\": 404}");
+            }
+            return new ApiResponse<>(200, new HashMap<>(), Collections.<String, Object>singletonMap("id", id));
+        }
+
+        public ApiResponse<Map<String, Object>> listWithHttpInfo(Integer offset, Integer limit) {
+            List<Object> items = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + limit, 5); i++) {
+                items.add(Collections.singletonMap("id", String.valueOf(i)));
+            }
+            return new ApiResponse<>(200, new HashMap<>(), Collections.<String, Object>singletonMap("items", items));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.models.CassetteEntry;
+import com.ionoscloud.utils.JsonUtils;
+import okhttp3.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class HttpCassetteTest {
+
+    private static final String BASE_PATH = "https://api.ionos.com/cloudapi/v6";
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("cassette", ".jsonl");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static Request get(String path) {
+        return new Request.Builder().url(BASE_PATH + path).build();
+    }
+
+    private static Request post(String path, String body) {
+        return new Request.Builder().url(BASE_PATH + path).post(RequestBody.create(MediaType.parse("application/json"), body)).build();
+    }
+
+    private static Response response(Request request, int code, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(code == 200 ? "OK" : "Accepted")
+                .header("Content-Type", "application/json")
+                .header("ETag", "\"" + body.length() + "\"")
+                .body(ResponseBody.create(MediaType.parse("application/json"), body))
+                .build();
+    }
+
+    private void write(CassetteEntry... entries) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (CassetteEntry entry : entries) {
+            lines.append(JsonUtils.MAPPER.writeValueAsString(entry)).append('\n');
+        }
+        Files.write(file.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CassetteEntry entry(String method, String path, String requestBody, String body) {
+        return CassetteEntry
+                .builder()
+                .method(method)
+                .path(path)
+                .requestBody(requestBody)
+                .statusCode(200)
+                .message("OK")
+                .headers(Collections.singletonMap("content-type", Collections.singletonList("application/json")))
+                .body(body)
+                .build();
+    }
+
+    @Test
+    public void recordsExchangesAndPassesTheResponsesOn() throws IOException {
+        HttpCassette cassette = HttpCassette.record(file);
+        assertEquals(HttpCassette.Mode.RECORD, cassette.getMode());
+
+        Response datacenters = cassette.intercept(chain(request -> response(request, 200, "{\"items\":[]}"), get("/datacenters?depth=1")));
+        Response created = cassette.intercept(chain(request -> response(request, 202, "{\"id\":\"1\"}"), post("/datacenters", "{\"name\":\"dc\"}")));
+
+        /* the response body is still readable after it was recorded */
+        assertEquals("{\"items\":[]}", datacenters.body().string());
+        assertEquals("{\"id\":\"1\"}", created.body().string());
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        CassetteEntry first = JsonUtils.MAPPER.readValue(lines.get(0), CassetteEntry.class);
+        assertEquals("GET", first.getMethod());
+        /* the path is kept without the scheme and host */
+        assertEquals("/cloudapi/v6/datacenters?depth=1", first.getPath());
+        assertNull(first.getRequestBody());
+        assertEquals(Integer.valueOf(200), first.getStatusCode());
+        assertEquals(Collections.singletonList("\"12\""), first.getHeaders().get("etag"));
+
+        CassetteEntry second = JsonUtils.MAPPER.readValue(lines.get(1), CassetteEntry.class);
+        assertEquals("POST", second.getMethod());
+        assertEquals("{\"name\":\"dc\"}", second.getRequestBody());
+        assertEquals(Integer.valueOf(202), second.getStatusCode());
+    }
+
+    @Test
+    public void replaysARecordingWithoutTheNetwork() throws IOException {
+        HttpCassette recorder = HttpCassette.record(file);
+        recorder.intercept(chain(request -> response(request, 200, "{\"id\":\"1\"}"), get("/datacenters/1")));
+
+        HttpCassette cassette = HttpCassette.replay(file);
+        assertEquals(HttpCassette.Mode.REPLAY, cassette.getMode());
+        Interceptor.Chain offline = chain(request -> {
+            throw new AssertionError("replay must not reach the network");
+        }, get("/datacenters/1"));
+
+        Response response = cassette.intercept(offline);
+        assertEquals(200, response.code());
+        assertEquals("OK", response.message());
+        assertEquals("\"10\"", response.header("ETag"));
+        assertEquals("{\"id\":\"1\"}", response.body().string());
+    }
+
+    @Test
+    public void matchesOnMethodPathQueryAndBody() throws IOException {
+        write(
+                entry("GET", "/cloudapi/v6/datacenters?depth=1", null, "depth 1"),
+                entry("GET", "/cloudapi/v6/datacenters?depth=2", null, "depth 2"),
+                entry("POST", "/cloudapi/v6/datacenters", "{\"name\":\"a\"}", "created a"),
+                entry("POST", "/cloudapi/v6/datacenters", "{\"name\":\"b\"}", "created b")
+        );
+        HttpCassette cassette = HttpCassette.replay(file);
+
+        assertEquals("depth 2", replay(cassette, get("/datacenters?depth=2")));
+        assertEquals("depth 1", replay(cassette, get("/datacenters?depth=1")));
+        assertEquals("created b", replay(cassette, post("/datacenters", "{\"name\":\"b\"}")));
+        assertEquals("created a", replay(cassette, post("/datacenters", "{\"name\":\"a\"}")));
+    }
+
+    @Test
+    public void answersIdenticalRequestsInOrderAndRepeatsTheLast() throws IOException {
+        write(
+                entry("GET", "/cloudapi/v6/requests/1/status", null, "QUEUED"),
+                entry("GET", "/cloudapi/v6/requests/1/status", null, "RUNNING"),
+                entry("GET", "/cloudapi/v6/requests/1/status", null, "DONE")
+        );
+        HttpCassette cassette = HttpCassette.replay(file);
+
+        List<String> statuses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            statuses.add(replay(cassette, get("/requests/1/status")));
+        }
+        assertEquals(Arrays.asList("QUEUED", "RUNNING", "DONE", "DONE", "DONE"), statuses);
+    }
+
+    @Test
+    public void failsRequestsWithoutARecordedExchange() throws IOException {
+        write(entry("GET", "/cloudapi/v6/datacenters", null, "[]"));
+        HttpCassette cassette = HttpCassette.replay(file);
+
+        assertMissing(cassette, get("/datacenters/1"), "no recorded exchange for GET /cloudapi/v6/datacenters/1");
+        /* the query and the method are part of the match */
+        assertMissing(cassette, get("/datacenters?depth=1"), "no recorded exchange for GET /cloudapi/v6/datacenters?depth=1");
+        assertMissing(cassette, post("/datacenters", "{}"), "no recorded exchange for POST /cloudapi/v6/datacenters");
+    }
+
+    @Test
+    public void replaysAnEmptyCassette() throws IOException {
+        write();
+        assertMissing(HttpCassette.replay(file), get("/datacenters"), "no recorded exchange for GET /cloudapi/v6/datacenters");
+    }
+
+    @Test
+    public void defaultsMissingResponseFields() throws IOException {
+        write(CassetteEntry.builder().method("DELETE").path("/cloudapi/v6/datacenters/1").statusCode(202).build());
+        Request delete = new Request.Builder().url(BASE_PATH + "/datacenters/1").delete().build();
+
+        Response response = HttpCassette.replay(file).intercept(chain(null, delete));
+        assertEquals(202, response.code());
+        assertEquals("", response.message());
+        assertEquals("", response.body().string());
+        assertEquals("application/json", response.body().contentType().toString());
+    }
+
+    private static String replay(HttpCassette cassette, Request request) throws IOException {
+        return cassette.intercept(chain(null, request)).body().string();
+    }
+
+    private static void assertMissing(HttpCassette cassette, Request request, String message) {
+        try {
+            cassette.intercept(chain(null, request));
+            fail("expected no recorded exchange for " + request.url());
+        } catch (IOException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    /*
+     * The rest of the interceptor chain, which hands the request to the server. It is a proxy since the
+     * cassette only uses request() and proceed() of the chain's many methods.
+     */
+    private static Interceptor.Chain chain(Server server, Request request) {
+        return (Interceptor.Chain) Proxy.newProxyInstance(Interceptor.Chain.class.getClassLoader(),
+                new Class<?>[]{Interceptor.Chain.class}, (proxy, method, args) -> {
+                    if ("request".equals(method.getName())) {
+                        return request;
+                    }
+                    if ("proceed".equals(method.getName())) {
+                        return server.respond((Request) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private interface Server {
+        Response respond(Request request) throws IOException;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.auth.ApiKeyAuth;
+import com.ionoscloud.models.TransportConfig;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class HttpTransportTest {
+
+    private static Map<String, String> env(String... entries) {
+        Map<String, String> env = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            env.put(entries[i], entries[i + 1]);
+        }
+        return env;
+    }
+
+    @Test
+    public void readsNothingFromAnEmptyEnv() {
+        assertEquals(new TransportConfig(), HttpTransport.fromEnv(env()));
+        assertEquals(new TransportConfig(), HttpTransport.fromEnv(env(HttpTransport.HTTP2_ENV_VAR, " ",
+                HttpTransport.READ_TIMEOUT_ENV_VAR, "")));
+    }
+
+    @Test
+    public void readsTheSettingsFromTheEnv() {
+        TransportConfig config = HttpTransport.fromEnv(env(
+                HttpTransport.MAX_IDLE_CONNECTIONS_ENV_VAR, " 20 ",
+                HttpTransport.KEEP_ALIVE_SECONDS_ENV_VAR, "60",
+                HttpTransport.HTTP2_ENV_VAR, "FALSE",
+                HttpTransport.COMPRESSION_ENV_VAR, "true",
+                HttpTransport.CONNECT_TIMEOUT_ENV_VAR, "1500",
+                HttpTransport.READ_TIMEOUT_ENV_VAR, "0"
+        ));
+
+        assertEquals(TransportConfig
+                .builder()
+                .maxIdleConnections(20)
+                .keepAliveSeconds(60L)
+                .http2(false)
+                .compression(true)
+                .connectTimeoutMs(1500L)
+                .readTimeoutMs(0L)
+                .build(), config);
+    }
+
+    @Test
+    public void rejectsMalformedEnvValues() {
+        assertMalformed(HttpTransport.CONNECT_TIMEOUT_ENV_VAR, "1.5s",
+                "IONOS_DRIVER_CONNECT_TIMEOUT_MS is not a number: '1.5s'");
+        assertMalformed(HttpTransport.KEEP_ALIVE_SECONDS_ENV_VAR, "-1",
+                "IONOS_DRIVER_KEEP_ALIVE_SECONDS must not be negative: -1");
+        assertMalformed(HttpTransport.MAX_IDLE_CONNECTIONS_ENV_VAR, "3000000000",
+                "IONOS_DRIVER_MAX_IDLE_CONNECTIONS is out of range: 3000000000");
+        /* anything but true or false used to turn http2 off silently */
+        assertMalformed(HttpTransport.HTTP2_ENV_VAR, "yes",
+                "IONOS_DRIVER_HTTP2 must be true or false: 'yes'");
+        assertMalformed(HttpTransport.COMPRESSION_ENV_VAR, "0",
+                "IONOS_DRIVER_COMPRESSION must be true or false: '0'");
+    }
+
+    @Test
+    public void keepsTheBaseClientWithoutSettings() {
+        ApiClient apiClient = new ApiClient();
+        OkHttpClient baseClient = apiClient.getHttpClient();
+        HttpTransport transport = new HttpTransport(apiClient, new TransportConfig());
+
+        transport.install();
+        assertSame(baseClient, apiClient.getHttpClient());
+        assertSame(baseClient, transport.client(null));
+        assertSame(baseClient, transport.client(new TransportConfig()));
+    }
+
+    @Test
+    public void installsTheClientOfTheBaseConfig() {
+        ApiClient apiClient = new ApiClient();
+        HttpTransport transport = new HttpTransport(apiClient, TransportConfig.builder().readTimeoutMs(2500L).build());
+
+        transport.install();
+        assertEquals(2500, apiClient.getHttpClient().readTimeoutMillis());
+        assertSame(apiClient.getHttpClient(), transport.client(null));
+    }
+
+    @Test
+    public void buildsOneClientPerDistinctConfig() {
+        HttpTransport transport = new HttpTransport(new ApiClient(), TransportConfig.builder().connectTimeoutMs(1000L).build());
+
+        OkHttpClient http1 = transport.client(TransportConfig.builder().http2(false).build());
+        assertSame(http1, transport.client(TransportConfig.builder().http2(false).build()));
+        /* the overrides are merged onto the base config, so this is the same config */
+        assertSame(http1, transport.client(TransportConfig.builder().http2(false).connectTimeoutMs(1000L).build()));
+        assertNotSame(http1, transport.client(TransportConfig.builder().http2(false).connectTimeoutMs(2000L).build()));
+
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), http1.protocols());
+        assertEquals(1000, http1.connectTimeoutMillis());
+    }
+
+    @Test
+    public void sharesConnectionPoolsBetweenClientsWithTheSamePoolSettings() {
+        ApiClient apiClient = new ApiClient();
+        OkHttpClient baseClient = apiClient.getHttpClient();
+        HttpTransport transport = new HttpTransport(apiClient, new TransportConfig());
+
+        OkHttpClient fast = transport.client(TransportConfig.builder().maxIdleConnections(10).readTimeoutMs(100L).build());
+        OkHttpClient slow = transport.client(TransportConfig.builder().maxIdleConnections(10).readTimeoutMs(9000L).build());
+        OkHttpClient other = transport.client(TransportConfig.builder().maxIdleConnections(20).build());
+        OkHttpClient timeoutOnly = transport.client(TransportConfig.builder().readTimeoutMs(100L).build());
+
+        assertNotSame(fast, slow);
+        assertSame(fast.connectionPool(), slow.connectionPool());
+        assertNotSame(fast.connectionPool(), other.connectionPool());
+        /* a config without pool settings keeps the pool of the base client */
+        assertSame(baseClient.connectionPool(), timeoutOnly.connectionPool());
+    }
+
+    @Test
+    public void turnsOffCompressionWithAnInterceptor() {
+        HttpTransport transport = new HttpTransport(new ApiClient(), new TransportConfig());
+        OkHttpClient baseClient = transport.client(null);
+
+        OkHttpClient uncompressed = transport.client(TransportConfig.builder().compression(false).build());
+        OkHttpClient compressed = transport.client(TransportConfig.builder().compression(true).build());
+
+        assertEquals(baseClient.interceptors().size() + 1, uncompressed.interceptors().size());
+        assertEquals(baseClient.interceptors().size(), compressed.interceptors().size());
+    }
+
+    @Test
+    public void derivesAnApiClientWithTheSameBasePathAndCredentials() {
+        ApiClient source = new ApiClient();
+        source.setBasePath("http://localhost:1234/cloudapi/v6");
+        SdkService.authenticate(source, null, null, "token-a");
+        OkHttpClient httpClient = new OkHttpClient();
+
+        ApiClient derived = HttpTransport.derive(source, httpClient);
+
+        assertNotSame(source, derived);
+        assertSame(httpClient, derived.getHttpClient());
+        assertEquals("http://localhost:1234/cloudapi/v6", derived.getBasePath());
+        ApiKeyAuth auth = (ApiKeyAuth) derived.getAuthentication("Token Authentication");
+        assertEquals("token-a", auth.getApiKey());
+        assertEquals("Bearer", auth.getApiKeyPrefix());
+    }
+
+    private static void assertMalformed(String name, String value, String message) {
+        try {
+            HttpTransport.fromEnv(env(name, value));
+            fail("expected " + message);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.models.LatencySummary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void summarizesNothing() {
+        LatencySummary summary = new LatencyHistogram().summarize();
+
+        assertEquals(0, summary.getCount().longValue());
+        assertEquals(0, summary.getMeanMs(), 0);
+        assertEquals(0, summary.getP99Ms(), 0);
+        assertEquals(0, summary.getMaxMs(), 0);
+    }
+
+    @Test
+    public void reportsPercentilesWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * MS);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        /* the upper bound of a bucket is at most 10% above the values in it */
+        assertBetween(500 * MS, 550 * MS, histogram.percentile(0.5));
+        assertBetween(900 * MS, 990 * MS, histogram.percentile(0.9));
+        assertBetween(990 * MS, 1000 * MS, histogram.percentile(0.99));
+        assertBetween(MS, (long) (1.1 * MS), histogram.percentile(0));
+
+        LatencySummary summary = histogram.summarize();
+        assertEquals(500.5, summary.getMeanMs(), 1e-9);
+        assertEquals(1000, summary.getMaxMs(), 0);
+    }
+
+    @Test
+    public void neverReportsMoreThanTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1001 * MS);
+
+        /* the bucket's upper bound is above the only value */
+        assertEquals(1001 * MS, histogram.percentile(0.5));
+        assertEquals(1001 * MS, histogram.percentile(1));
+    }
+
+    @Test
+    public void keepsValuesOutsideTheBucketRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(500);
+        /* longer than the last bucket */
+        histogram.record(TimeUnit.HOURS.toNanos(2));
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(1000, histogram.percentile(0.5));
+        assertEquals(TimeUnit.HOURS.toNanos(2), histogram.percentile(1));
+    }
+
+    @Test
+    public void resets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5 * MS);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.5));
+        histogram.record(2 * MS);
+        assertEquals(2, histogram.summarize().getMaxMs(), 0);
+    }
+
+    @Test
+    public void accumulatesPhasesAndSkipsRestartedTime() throws InterruptedException {
+        PhaseTimer timer = new PhaseTimer();
+        Thread.sleep(5);
+        timer.mark(PhaseTimer.READ);
+        Thread.sleep(5);
+        timer.mark(PhaseTimer.INVOKE);
+        Thread.sleep(100);
+        timer.restart();
+        Thread.sleep(5);
+        timer.mark(PhaseTimer.INVOKE);
+
+        Map<String, Long> phases = timer.getPhases();
+        assertEquals(Arrays.asList(PhaseTimer.READ, PhaseTimer.INVOKE), Arrays.asList(phases.keySet().toArray()));
+        assertTrue(phases.get(PhaseTimer.READ) >= 5 * MS);
+        /* both invoke marks, without the 100ms before the restart */
+        assertTrue(phases.get(PhaseTimer.INVOKE) >= 10 * MS);
+        assertTrue(phases.get(PhaseTimer.INVOKE) < 100 * MS);
+        assertEquals(phases.get(PhaseTimer.INVOKE) / 1e6, timer.toMillis().get(PhaseTimer.INVOKE), 1e-9);
+    }
+
+    @Test
+    public void recordsPhasesPerOperationWithTheirTotal() {
+        LatencyHistograms histograms = new LatencyHistograms();
+        PhaseTimer timer = new PhaseTimer();
+        timer.getPhases().put(PhaseTimer.BIND, 2 * MS);
+        timer.getPhases().put(PhaseTimer.INVOKE, 8 * MS);
+        histograms.record("serversGet", timer);
+        histograms.record("serversGet", timer);
+        histograms.record("datacentersGet", PhaseTimer.INVOKE, 3 * MS);
+
+        Map<String, Map<String, LatencySummary>> summaries = histograms.summarize();
+        assertEquals(Arrays.asList("datacentersGet", "serversGet"), Arrays.asList(summaries.keySet().toArray()));
+        assertEquals(Arrays.asList(PhaseTimer.BIND, PhaseTimer.INVOKE, LatencyHistograms.TOTAL),
+                Arrays.asList(summaries.get("serversGet").keySet().toArray()));
+        assertEquals(2, summaries.get("serversGet").get(LatencyHistograms.TOTAL).getCount().longValue());
+        assertEquals(10, summaries.get("serversGet").get(LatencyHistograms.TOTAL).getMaxMs(), 0);
+        /* a single phase recorded on its own has no total */
+        assertNull(summaries.get("datacentersGet").get(LatencyHistograms.TOTAL));
+
+        histograms.reset();
+        assertTrue(histograms.summarize().isEmpty());
+    }
+
+    private static void assertBetween(long min, long max, long value) {
+        assertTrue(value + " not in [" + min + ", " + max + "]", value >= min && value <= max);
+    }
+}
@@ -0,0 +1,169 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.LoadReport;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.utils.JsonUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LoadGeneratorTest {
+
+    private static final Operation LIST = Operation
+            .builder()
+            .name("thingsGet")
+            .apiClass(HttpApi.class.getName())
+            .method("thingsGetWithHttpInfo")
+            .parameterNames(Collections.singletonList("depth"))
+            .httpMethod("GET")
+            .path("/things")
+            .build();
+
+    private StubApiServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private SdkService start(long latencyMillis, double serverErrorRate) throws IOException {
+        OperationIndex operationIndex = OperationIndex.of(Collections.singletonList(LIST));
+        server = new StubApiServer(operationIndex, 0, latencyMillis, 3, 0, serverErrorRate);
+        server.start();
+
+        ApiClient apiClient = new ApiClient();
+        apiClient.setBasePath("http://localhost:" + server.getPort() + "/cloudapi/v6");
+        return new SdkService(apiClient, operationIndex);
+    }
+
+    private static Input input() {
+        return Input.builder().operation(LIST.getName()).build();
+    }
+
+    @Test
+    public void runsAtTheTargetRate() throws Exception {
+        LoadReport report = new LoadGenerator(start(0, 0)).run(input(), 50, 4, 400);
+
+        /* 400ms at 50 requests/s are 20 slots, every one of them taken */
+        assertEquals(Long.valueOf(20), report.getRequests());
+        assertEquals(Long.valueOf(0), report.getErrors());
+        assertEquals(Collections.singletonMap("200", 20L), report.getStatuses());
+        assertEquals("thingsGet", report.getOperation());
+        assertEquals(Double.valueOf(50), report.getTargetRate());
+        assertEquals(Integer.valueOf(4), report.getConcurrency());
+    }
+
+    @Test
+    public void summarizesTheLatency() throws Exception {
+        LoadReport report = new LoadGenerator(start(20, 0)).run(input(), 0, 2, 300);
+
+        long requests = report.getRequests();
+        assertTrue("requests " + requests, requests > 0);
+        assertEquals(Long.valueOf(requests), report.getStatuses().get("200"));
+        assertEquals(Long.valueOf(requests), report.getLatency().getCount());
+        assertEquals(Long.valueOf(requests), report.getServiceTime().getCount());
+
+        /* every call waits for the stub's latency */
+        assertTrue("p50 " + report.getLatency().getP50Ms(), report.getLatency().getP50Ms() >= 20);
+        assertTrue(report.getLatency().getP50Ms() <= report.getLatency().getP99Ms());
+        assertTrue(report.getLatency().getP99Ms() <= report.getLatency().getMaxMs());
+        assertTrue(report.getThroughput() > 0);
+    }
+
+    @Test
+    public void countsEveryFailedCallOnce() throws Exception {
+        LoadReport report = new LoadGenerator(start(0, 1)).run(input(), 50, 2, 200);
+
+        /* no retries, so every 503 is reported */
+        assertEquals(Long.valueOf(10), report.getRequests());
+        assertEquals(Long.valueOf(10), report.getErrors());
+        assertEquals(Collections.singletonMap("503", 10L), report.getStatuses());
+    }
+
+    @Test
+    public void rejectsUnknownOperationsAndBadSettings() throws Exception {
+        SdkService sdkService = start(0, 0);
+        try {
+            new LoadGenerator(sdkService).run(Input.builder().operation("nope").build(), 0, 1, 100);
+            fail("expected an unknown operation");
+        } catch (IllegalArgumentException e) {
+            assertEquals("method nope not found", e.getMessage());
+        }
+        try {
+            new LoadGenerator(sdkService).run(input(), 0, 0, 100);
+            fail("expected a bad concurrency");
+        } catch (IllegalArgumentException e) {
+            assertEquals("concurrency and duration must be positive, rate must not be negative", e.getMessage());
+        }
+    }
+
+    public static class Things {
+        String id;
+        List<Thing> items;
+    }
+
+    public static class Thing {
+        String id;
+        String href;
+    }
+
+    /* an api class like the sdk's, calling the stub server over http */
+    public static class HttpApi {
+        private final ApiClient apiClient;
+
+        public HttpApi(ApiClient apiClient) {
+            this.apiClient = apiClient;
+        }
+
+        public ApiResponse<Things> thingsGetWithHttpInfo(Integer depth) throws ApiException {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(apiClient.getBasePath() + "/things").openConnection();
+                int status = connection.getResponseCode();
+                String body = read(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+
+                Map<String, List<String>> headers = new HashMap<>();
+                for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                    if (header.getKey() != null) {
+                        headers.put(header.getKey(), header.getValue());
+                    }
+                }
+                if (status >= 400) {
+                    throw new ApiException("status " + status, status, headers, body);
+                }
+                return new ApiResponse<>(status, headers, JsonUtils.GSON.fromJson(body, Things.class));
+            } catch (IOException e) {
+                throw new ApiException(e.getMessage());
+            }
+        }
+    }
+
+    static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Operation;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class OperationIndexTest {
+
+    private static Operation operation(String name, String method, List<String> parameterTypes, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .apiClass(OverloadedApi.class.getName())
+                .method(method)
+                .parameterNames(Arrays.asList(parameterNames))
+                .parameterTypes(parameterTypes)
+                .httpMethod("GET")
+                .build();
+    }
+
+    @Test
+    public void resolvesOverloadsWithTheSameArityByTheirTypes() throws Exception {
+        Operation byId = operation("getById", "getWithHttpInfo",
+                Arrays.asList("java.lang.String", "java.lang.Integer"), "id", "depth");
+        Operation byNumber = operation("getByNumber", "getWithHttpInfo",
+                Arrays.asList("java.lang.Long", "java.lang.Integer"), "number", "depth");
+        Operation byLabels = operation("getByLabels", "getWithHttpInfo",
+                Arrays.asList("java.util.List<java.lang.String>", "java.lang.Integer"), "labels", "depth");
+        OperationIndex index = OperationIndex.of(Arrays.asList(byId, byNumber, byLabels));
+
+        assertArrayEquals(new Class<?>[]{String.class, Integer.class}, index.getMethod(byId).getParameterTypes());
+        assertArrayEquals(new Class<?>[]{Long.class, Integer.class}, index.getMethod(byNumber).getParameterTypes());
+        assertArrayEquals(new Class<?>[]{List.class, Integer.class}, index.getMethod(byLabels).getParameterTypes());
+    }
+
+    @Test
+    public void matchesByArityWithoutParameterTypes() throws Exception {
+        Operation single = operation("getSingle", "getWithHttpInfo", null, "id");
+        Operation pair = operation("getPair", "getWithHttpInfo", null, "id", "depth");
+        OperationIndex index = OperationIndex.of(Arrays.asList(single, pair));
+
+        assertArrayEquals(new Class<?>[]{String.class}, index.getMethod(single).getParameterTypes());
+        /* any of the overloads taking two params */
+        assertEquals(2, index.getMethod(pair).getParameterCount());
+    }
+
+    @Test
+    public void cachesTheResolvedMethod() throws Exception {
+        Operation byId = operation("getById", "getWithHttpInfo",
+                Arrays.asList("java.lang.String", "java.lang.Integer"), "id", "depth");
+        OperationIndex index = OperationIndex.of(Collections.singletonList(byId));
+
+        assertSame(index.getMethod(byId), index.getMethod(byId));
+    }
+
+    @Test
+    public void rejectsOperationsWithoutAMatchingMethod() throws Exception {
+        List<Operation> operations = Arrays.asList(
+                operation("wrongTypes", "getWithHttpInfo", Arrays.asList("java.lang.Integer", "java.lang.Integer"), "id", "depth"),
+                operation("wrongArity", "getWithHttpInfo", null, "id", "depth", "pretty"),
+                operation("wrongName", "listWithHttpInfo", null)
+        );
+        OperationIndex index = OperationIndex.of(operations);
+
+        for (Operation operation : operations) {
+            try {
+                index.getMethod(operation);
+                fail("expected no method for " + operation.getName());
+            } catch (NoSuchMethodException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith(OverloadedApi.class.getName() + "." + operation.getMethod()));
+            }
+        }
+    }
+
+    @Test
+    public void keepsTheFirstOperationOfAName() {
+        Operation first = operation("get", "getWithHttpInfo", null, "id");
+        Operation second = operation("get", "getWithHttpInfo", null, "id", "depth");
+        OperationIndex index = OperationIndex.of(Arrays.asList(first, second));
+
+        assertSame(first, index.find("get"));
+        assertNull(index.find("missing"));
+        assertEquals(1, index.getOperations().size());
+    }
+
+    @Test
+    public void describesTheOperationsOfAnApiClass() throws Exception {
+        Map<String, Operation> operations = new HashMap<>();
+        for (Operation operation : OperationIndex.describe(OverloadedApi.class)) {
+            operations.put(operation.getName() + operation.getParameterTypes(), operation);
+        }
+
+        assertEquals(5, operations.size());
+        Operation byLabels = operations.get("get[java.util.List<java.lang.String>, java.lang.Integer]");
+        assertEquals(OverloadedApi.class.getName(), byLabels.getApiClass());
+        assertEquals("getWithHttpInfo", byLabels.getMethod());
+        assertEquals(Arrays.asList("labels", "depth"), byLabels.getParameterNames());
+        /* without an ApiClient constructor the http method comes from the name and the path is unknown */
+        assertEquals("GET", byLabels.getHttpMethod());
+        assertNull(byLabels.getPath());
+        assertEquals("DELETE", operations.get("serversDelete[java.lang.String]").getHttpMethod());
+
+        /* a described operation resolves to the method it was described from */
+        Method method = OperationIndex.of(Collections.singletonList(byLabels)).getMethod(byLabels);
+        assertEquals(List.class, method.getParameterTypes()[0]);
+    }
+
+    /* overloads of the same name, like the sdk generates for operations with optional params */
+    public static class OverloadedApi {
+        public ApiResponse<String> getWithHttpInfo(String id) {
+            return null;
+        }
+
+        public ApiResponse<String> getWithHttpInfo(String id, Integer depth) {
+            return null;
+        }
+
+        public ApiResponse<String> getWithHttpInfo(Long number, Integer depth) {
+            return null;
+        }
+
+        public ApiResponse<String> getWithHttpInfo(List<String> labels, Integer depth) {
+            return null;
+        }
+
+        public ApiResponse<String> serversDeleteWithHttpInfo(String serverId) {
+            return null;
+        }
+
+        /* not an operation */
+        public String get(String id) {
+            return null;
+        }
+    }
+}
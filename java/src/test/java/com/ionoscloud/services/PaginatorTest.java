@@ -0,0 +1,229 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Response;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class PaginatorTest {
+
+    private static final Operation LIST = Operation
+            .builder()
+            .name("list")
+            .method("listWithHttpInfo")
+            .parameterNames(Arrays.asList(Paginator.OFFSET_PARAM, Paginator.LIMIT_PARAM))
+            .httpMethod("GET")
+            .build();
+
+    private final SdkService sdkService = new SdkService(new ApiClient(), OperationIndex.of(Collections.singletonList(LIST)));
+
+    private Response paginate(ListApi api, Input input, Map<String, Object> params, List<Response> sink) throws Exception {
+        Method method = ListApi.class.getMethod(LIST.getMethod(), Integer.class, Integer.class);
+        return new Paginator(sdkService).run(input, LIST, new OperationInvoker(method, api),
+                ParameterBinder.of(method, LIST.getParameterNames()), params, sink == null ? null : sink::add);
+    }
+
+    private Response paginate(ListApi api, int pageSize, int concurrency) throws Exception {
+        return paginate(api, Input.builder().pageSize(pageSize).concurrency(concurrency).build(), new HashMap<>(), null);
+    }
+
+    private static List<Integer> offsets(List<Response> pages) {
+        List<Integer> offsets = new ArrayList<>();
+        for (Response page : pages) {
+            offsets.add(page.getPage().getOffset());
+        }
+        return offsets;
+    }
+
+    @Test
+    public void endsAtAShortPage() throws Exception {
+        ListApi api = new ListApi(5, -1);
+        Response summary = paginate(api, 2, 1);
+
+        assertNull(summary.getError());
+        assertEquals(Integer.valueOf(5), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(3), summary.getPage().getPages());
+        assertEquals(Arrays.asList(0, 2, 4), offsets(summary.getResponses()));
+        assertEquals(Integer.valueOf(1), summary.getResponses().get(2).getPage().getItems());
+        /* one page at a time, so nothing is requested after the short page */
+        assertEquals(Arrays.asList(0, 2, 4), api.offsets);
+    }
+
+    @Test
+    public void dropsTheEmptyPageAfterAFullOne() throws Exception {
+        ListApi api = new ListApi(4, -1);
+        Response summary = paginate(api, 2, 1);
+
+        assertNull(summary.getError());
+        assertEquals(Integer.valueOf(4), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(2), summary.getPage().getPages());
+        assertEquals(Arrays.asList(0, 2), offsets(summary.getResponses()));
+        assertEquals(Arrays.asList(0, 2, 4), api.offsets);
+    }
+
+    @Test
+    public void keepsTheFirstPageOfAnEmptyList() throws Exception {
+        Response summary = paginate(new ListApi(0, -1), 2, 4);
+
+        assertNull(summary.getError());
+        assertEquals(Integer.valueOf(0), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(1), summary.getPage().getPages());
+        assertEquals(Collections.singletonList(0), offsets(summary.getResponses()));
+    }
+
+    @Test
+    public void endsConcurrentRequestsAtTheLastPage() throws Exception {
+        ListApi api = new ListApi(25, -1);
+        Response summary = paginate(api, 3, 4);
+
+        assertNull(summary.getError());
+        assertEquals(Integer.valueOf(25), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(9), summary.getPage().getPages());
+        assertEquals(Arrays.asList(0, 3, 6, 9, 12, 15, 18, 21, 24), offsets(summary.getResponses()));
+        /* at most one round of requests is in flight past the last page */
+        for (int offset : api.offsets) {
+            assertTrue("requested offset " + offset, offset < 24 + 4 * 3);
+        }
+    }
+
+    @Test
+    public void endsAtAFailedPage() throws Exception {
+        ListApi api = new ListApi(10, 4);
+        Response summary = paginate(api, 2, 1);
+
+        assertEquals("page at offset 4 failed: page unavailable", summary.getError().getMessage());
+        assertEquals(Arrays.asList(0, 2, 4), offsets(summary.getResponses()));
+        assertNotNull(summary.getResponses().get(2).getError());
+        assertEquals(Integer.valueOf(4), summary.getPage().getItems());
+        assertEquals(Arrays.asList(0, 2, 4), api.offsets);
+    }
+
+    @Test
+    public void reportsTheFirstFailedPage() throws Exception {
+        ListApi api = new ListApi(100, 4);
+        Response summary = paginate(api, 2, 8);
+
+        assertEquals("page at offset 4 failed: page unavailable", summary.getError().getMessage());
+    }
+
+    @Test
+    public void handsPagesToTheSink() throws Exception {
+        List<Response> sink = new ArrayList<>();
+        Response summary = paginate(new ListApi(5, -1), Input.builder().pageSize(2).concurrency(2).build(), new HashMap<>(), sink);
+
+        /* pages handed to the sink are not kept in the summary */
+        assertNull(summary.getResponses());
+        assertEquals(Integer.valueOf(5), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(3), summary.getPage().getPages());
+
+        List<Integer> offsets = offsets(sink);
+        Collections.sort(offsets);
+        assertEquals(Arrays.asList(0, 2, 4), offsets);
+    }
+
+    @Test
+    public void startsAtTheGivenOffsetAndLimit() throws Exception {
+        ListApi api = new ListApi(10, -1);
+        Map<String, Object> params = new HashMap<>();
+        params.put(Paginator.OFFSET_PARAM, 3);
+        params.put(Paginator.LIMIT_PARAM, 4);
+        Response summary = paginate(api, Input.builder().concurrency(1).build(), params, null);
+
+        assertEquals(Integer.valueOf(3), summary.getPage().getOffset());
+        assertEquals(Integer.valueOf(4), summary.getPage().getLimit());
+        assertEquals(Integer.valueOf(7), summary.getPage().getItems());
+        assertEquals(Arrays.asList(3, 7), offsets(summary.getResponses()));
+    }
+
+    @Test
+    public void rejectsOperationsWithoutOffsetAndLimit() throws Exception {
+        Operation get = Operation.builder().name("get").parameterNames(Collections.singletonList("id")).build();
+        assertFalse(Paginator.supports(get));
+        assertTrue(Paginator.supports(LIST));
+
+        try {
+            new Paginator(sdkService).run(new Input(), get, null, null, new HashMap<>(), null);
+            fail("expected an unsupported operation");
+        } catch (IllegalArgumentException e) {
+            assertEquals("operation get does not support pagination", e.getMessage());
+        }
+    }
+
+    @Test
+    public void forwardsOnlyADepthTheCallerSet() throws Exception {
+        Operation list = Operation
+                .builder()
+                .name("list")
+                .method("listWithHttpInfo")
+                .parameterNames(Arrays.asList("depth", Paginator.OFFSET_PARAM, Paginator.LIMIT_PARAM))
+                .httpMethod("GET")
+                .build();
+        Method method = DepthListApi.class.getMethod(list.getMethod(), Integer.class, Integer.class, Integer.class);
+        ParameterBinder binder = ParameterBinder.of(method, list.getParameterNames());
+        Input input = Input.builder().pageSize(2).concurrency(1).build();
+
+        DepthListApi api = new DepthListApi(3);
+        new Paginator(sdkService).run(input, list, new OperationInvoker(method, api), binder, new HashMap<>(), null);
+        assertEquals(Arrays.asList(null, null), api.depths);
+
+        api = new DepthListApi(3);
+        new Paginator(sdkService).run(input, list, new OperationInvoker(method, api), binder,
+                new HashMap<>(Collections.singletonMap("depth", 3)), null);
+        assertEquals(Arrays.asList(3, 3), api.depths);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositivePageSize() throws Exception {
+        paginate(new ListApi(5, -1), 0, 1);
+    }
+
+    /* a list of numbered items, failing the pages from the given offset on unless it is negative */
+    public static class ListApi {
+        final List<Integer> offsets = new CopyOnWriteArrayList<>();
+        private final int size;
+        private final int failFrom;
+
+        ListApi(int size, int failFrom) {
+            this.size = size;
+            this.failFrom = failFrom;
+        }
+
+        public ApiResponse<Map<String, Object>> listWithHttpInfo(Integer offset, Integer limit) throws ApiException {
+            offsets.add(offset);
+            if (failFrom >= 0 && offset >= failFrom) {
+                throw new ApiException("page unavailable", 503, new HashMap<>(), "{\"httpStatus\": 503}");
+            }
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + limit, size); i++) {
+                items.add(Collections.<String, Object>singletonMap("id", String.valueOf(i)));
+            }
+            return new ApiResponse<>(200, new HashMap<>(), Collections.<String, Object>singletonMap("items", items));
+        }
+    }
+
+    /* a list of numbered items that records the depth of every page request */
+    public static class DepthListApi {
+        final List<Integer> depths = Collections.synchronizedList(new ArrayList<>());
+        private final ListApi list;
+
+        DepthListApi(int size) {
+            this.list = new ListApi(size, -1);
+        }
+
+        public ApiResponse<Map<String, Object>> listWithHttpInfo(Integer depth, Integer offset, Integer limit)
+                throws ApiException {
+            depths.add(depth);
+            return list.listWithHttpInfo(offset, limit);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ionoscloud.services;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParameterBinderTest {
+
+    private static Map<String, Object> params(Object... entries) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            params.put((String) entries[i], entries[i + 1]);
+        }
+        return params;
+    }
+
+    private static Object[] bind(String methodName, Map<String, Object> params) {
+        for (Method method : TestApi.class.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return ParameterBinder.of(method).bind(params);
+            }
+        }
+        throw new IllegalArgumentException(methodName);
+    }
+
+    @Test
+    public void coercesNumbersToTheParameterTypes() {
+        /* jackson parses whole numbers as Integer or Long and decimals as Double */
+        Object[] args = bind("numbers", params(
+                "count", 2.0,
+                "size", 3,
+                "ratio", 1,
+                "price", 0.1,
+                "cores", 4L
+        ));
+
+        assertEquals(Integer.valueOf(2), args[0]);
+        assertEquals(Long.valueOf(3), args[1]);
+        assertEquals(Double.valueOf(1), args[2]);
+        /* the decimal keeps its text, not the binary value of the double */
+        assertEquals(new BigDecimal("0.1"), args[3]);
+        assertEquals(Float.valueOf(4), args[4]);
+    }
+
+    @Test
+    public void parsesIdsAndTimestamps() {
+        UUID id = UUID.randomUUID();
+        Object[] args = bind("identified", params("id", id.toString(), "since", "2024-01-02T03:04:05Z"));
+
+        assertEquals(id, args[0]);
+        assertEquals(OffsetDateTime.parse("2024-01-02T03:04:05Z"), args[1]);
+    }
+
+    @Test
+    public void convertsMapsAndListsIntoModels() {
+        Map<String, Object> properties = params("name", "web", "cores", 2);
+        Object[] args = bind("models", params(
+                "server", params("properties", properties),
+                "servers", Arrays.asList(params("properties", properties), params("properties", params("name", "db")))
+        ));
+
+        Server server = (Server) args[0];
+        assertEquals("web", server.properties.name);
+        assertEquals(Integer.valueOf(2), server.properties.cores);
+
+        @SuppressWarnings("unchecked")
+        List<Server> servers = (List<Server>) args[1];
+        assertEquals(2, servers.size());
+        /* the list's element type comes from the generic parameter type */
+        assertEquals("db", servers.get(1).properties.name);
+        assertNull(servers.get(1).properties.cores);
+    }
+
+    @Test
+    public void leavesMissingAndNullParamsNull() {
+        Object[] args = bind("named", params("datacenterId", null, "unknown", "x"));
+
+        assertArrayEquals(new Object[]{null, null}, args);
+    }
+
+    @Test
+    public void acceptsCapitalizedNames() {
+        Object[] args = bind("named", params("DatacenterId", "1", "depth", 2));
+        assertArrayEquals(new Object[]{"1", 2}, args);
+
+        /* the name as declared wins over its capitalized variant */
+        args = bind("named", params("datacenterId", "1", "DatacenterId", "2", "Depth", 3));
+        assertArrayEquals(new Object[]{"1", 3}, args);
+    }
+
+    @Test
+    public void usesTheGivenParameterNames() throws NoSuchMethodException {
+        Method method = TestApi.class.getMethod("renamed", String.class, Integer.class);
+        ParameterBinder binder = ParameterBinder.of(method, Arrays.asList("serverId", "limit"));
+
+        assertArrayEquals(new String[]{"serverId", "limit"}, binder.getNames());
+        assertArrayEquals(new Object[]{"1", 10}, binder.bind(params("serverId", "1", "limit", 10L, "first", "2")));
+        /* binders are built once per method */
+        assertSame(binder, ParameterBinder.of(method));
+    }
+
+    public static class Server {
+        ServerProperties properties;
+    }
+
+    public static class ServerProperties {
+        String name;
+        Integer cores;
+    }
+
+    /* the parameter types of the sdk's api methods */
+    public static class TestApi {
+        public void numbers(Integer count, long size, Double ratio, BigDecimal price, float cores) {
+        }
+
+        public void identified(UUID id, OffsetDateTime since) {
+        }
+
+        public void models(Server server, List<Server> servers) {
+        }
+
+        public void named(String datacenterId, Integer depth) {
+        }
+
+        public void renamed(String first, Integer second) {
+        }
+    }
+}
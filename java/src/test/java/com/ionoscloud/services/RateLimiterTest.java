@@ -0,0 +1,133 @@
+package com.ionoscloud.services;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static Map<String, List<String>> headers(String... entries) {
+        Map<String, List<String>> headers = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            headers.put(entries[i], Collections.singletonList(entries[i + 1]));
+        }
+        return headers;
+    }
+
+    @Test
+    public void letsABurstThrough() {
+        RateLimiter limiter = new RateLimiter(10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve(now));
+        }
+    }
+
+    @Test
+    public void waitsOnceTheBucketIsEmpty() {
+        RateLimiter limiter = new RateLimiter(10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.reserve(now);
+        }
+
+        /* a token is refilled every 100ms, and every reservation waits for one more */
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(95), TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve(now));
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(195), TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve(now));
+    }
+
+    @Test
+    public void refillsOverTime() {
+        RateLimiter limiter = new RateLimiter(10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.reserve(now);
+        }
+
+        /* half a second refills five tokens */
+        long later = now + SECOND / 2;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.reserve(later));
+        }
+        assertTrue(limiter.reserve(later) > 0);
+    }
+
+    @Test
+    public void refillsNoMoreThanTheCapacity() {
+        RateLimiter limiter = new RateLimiter(2);
+        long later = System.nanoTime() + 60 * SECOND;
+        assertEquals(0, limiter.reserve(later));
+        assertEquals(0, limiter.reserve(later));
+        assertTrue(limiter.reserve(later) > 0);
+    }
+
+    @Test
+    public void holdsAtLeastOneToken() {
+        RateLimiter limiter = new RateLimiter(0.5);
+        long now = System.nanoTime();
+        assertEquals(0, limiter.reserve(now));
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(1900), 2 * SECOND, limiter.reserve(now));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositiveRate() {
+        new RateLimiter(0);
+    }
+
+    @Test
+    public void letsEverythingThroughUntilTheRateIsKnown() {
+        RateLimiter limiter = new RateLimiter();
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.reserve(now));
+        }
+        limiter.update(headers("Content-Type", "application/json"));
+        assertEquals(0, limiter.reserve(now));
+    }
+
+    @Test
+    public void takesTheRateFromTheHeaders() {
+        RateLimiter limiter = new RateLimiter();
+        /* 600 requests per minute are 10 per second; okhttp hands out the header names in lower case */
+        limiter.update(headers("x-ratelimit-limit", "600", "x-ratelimit-burst", "5", "x-ratelimit-remaining", "2"));
+
+        long now = System.nanoTime();
+        assertEquals(0, limiter.reserve(now));
+        assertEquals(0, limiter.reserve(now));
+        assertBetween(TimeUnit.MILLISECONDS.toNanos(95), TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve(now));
+
+        /* the bucket refills up to the burst */
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.reserve(later));
+        }
+        assertTrue(limiter.reserve(later) > 0);
+    }
+
+    @Test
+    public void fixedRateIgnoresTheHeaders() {
+        RateLimiter limiter = new RateLimiter(10);
+        limiter.update(headers(RateLimiter.LIMIT_HEADER, "60", RateLimiter.REMAINING_HEADER, "0"));
+        assertEquals(0, limiter.reserve(System.nanoTime()));
+    }
+
+    @Test
+    public void pausesAllCalls() {
+        RateLimiter limiter = new RateLimiter();
+        limiter.pause(SECOND);
+        assertBetween(SECOND / 2, SECOND, limiter.reserve(System.nanoTime()));
+        assertEquals(0, limiter.reserve(System.nanoTime() + 2 * SECOND));
+    }
+
+    private static void assertBetween(long min, long max, long value) {
+        assertTrue(value + " is not in [" + min + ", " + max + "]", value >= min && value <= max);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiException;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.RequestState;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestPollerTest {
+
+    /* a status the api fails to return */
+    private static final String ERROR = "ERROR";
+
+    private SdkService sdkService;
+
+    @Before
+    public void setUp() {
+        StatusApi.reset();
+        sdkService = new SdkService(new ApiClient(), OperationIndex.of(Arrays.asList(
+                operation(RequestPoller.STATUS_OPERATION, "requestsStatusGetWithHttpInfo", "requestId"),
+                operation(RequestPoller.LIST_OPERATION, "requestsGetWithHttpInfo", "depth", "limit")
+        )));
+    }
+
+    private static Operation operation(String name, String method, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .apiClass(StatusApi.class.getName())
+                .method(method)
+                .parameterNames(Arrays.asList(parameterNames))
+                .httpMethod("GET")
+                .build();
+    }
+
+    private static RequestState await(CompletableFuture<RequestState> waiter) throws Exception {
+        return waiter.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void pollsADoneRequestRightAway() throws Exception {
+        StatusApi.script("1", RequestPoller.STATUS_DONE);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 60000, 5000, 10000));
+
+        assertEquals(RequestPoller.STATUS_DONE, state.getStatus());
+        assertEquals(Integer.valueOf(1), state.getPolls());
+        /* no wait for the initial interval */
+        assertTrue("took " + state.getDurationMs() + "ms", state.getDurationMs() < 2000);
+    }
+
+    @Test
+    public void pollsUntilDone() throws Exception {
+        StatusApi.script("1", RequestPoller.STATUS_QUEUED, "RUNNING", "RUNNING", RequestPoller.STATUS_DONE);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 60000, 10, 40));
+
+        assertEquals(RequestPoller.STATUS_DONE, state.getStatus());
+        assertEquals(Integer.valueOf(4), state.getPolls());
+        assertEquals(4, StatusApi.statusCalls.get());
+    }
+
+    @Test
+    public void reportsAFailedRequest() throws Exception {
+        StatusApi.script("1", "RUNNING", RequestPoller.STATUS_FAILED);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 60000, 10, 40));
+
+        assertEquals(RequestPoller.STATUS_FAILED, state.getStatus());
+        assertEquals("request 1 is FAILED", state.getMessage());
+        assertEquals(Integer.valueOf(2), state.getPolls());
+    }
+
+    @Test
+    public void timesOut() throws Exception {
+        StatusApi.script("1", "RUNNING");
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 200, 10, 40));
+
+        assertEquals(RequestPoller.STATUS_TIMEOUT, state.getStatus());
+        assertEquals("timed out waiting for request 1 (last status: RUNNING)", state.getMessage());
+        assertTrue(state.getDurationMs() >= 200);
+        assertTrue(state.getPolls() > 1);
+    }
+
+    @Test
+    public void backsOffTowardsTheMaxInterval() throws Exception {
+        StatusApi.script("1", RequestPoller.STATUS_QUEUED);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 1000, 50, 200));
+
+        /* polls at 0, 50, 150, 350, 550, 750, 950 and at the deadline, instead of every 50ms */
+        assertEquals(RequestPoller.STATUS_TIMEOUT, state.getStatus());
+        assertTrue("polls " + state.getPolls(), state.getPolls() >= 6 && state.getPolls() <= 9);
+    }
+
+    @Test
+    public void pollsAgainAfterAFailedStatusCall() throws Exception {
+        StatusApi.script("1", ERROR, ERROR, RequestPoller.STATUS_DONE);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 60000, 10, 40));
+
+        assertEquals(RequestPoller.STATUS_DONE, state.getStatus());
+        assertEquals(Integer.valueOf(3), state.getPolls());
+    }
+
+    @Test
+    public void timesOutOnFailingStatusCalls() throws Exception {
+        StatusApi.script("1", ERROR);
+        RequestState state = await(new RequestPoller(sdkService, false).submit("1", 150, 10, 40));
+
+        assertEquals(RequestPoller.STATUS_TIMEOUT, state.getStatus());
+        assertTrue(state.getMessage(), state.getMessage().startsWith("timed out waiting for request 1 (last error: "));
+    }
+
+    @Test
+    public void waitsForManyRequestsWithOneListCall() throws Exception {
+        RequestPoller poller = new RequestPoller(sdkService, true);
+        List<CompletableFuture<RequestState>> waiters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            StatusApi.script(String.valueOf(i), RequestPoller.STATUS_QUEUED, "RUNNING", "RUNNING", RequestPoller.STATUS_DONE);
+        }
+        for (int i = 0; i < 20; i++) {
+            waiters.add(poller.submit(String.valueOf(i), 60000, 50, 100));
+        }
+
+        for (CompletableFuture<RequestState> waiter : waiters) {
+            assertEquals(RequestPoller.STATUS_DONE, await(waiter).getStatus());
+        }
+        /* the first polls may be single ones as the requests come in, the later ones are batched */
+        assertTrue(StatusApi.listCalls.get() >= 2);
+        assertTrue("status calls " + StatusApi.statusCalls.get(), StatusApi.statusCalls.get() < 40);
+    }
+
+    @Test
+    public void fallsBackToStatusCallsWhenTheListFails() throws Exception {
+        StatusApi.failList = true;
+        RequestPoller poller = new RequestPoller(sdkService, true);
+        StatusApi.script("1", "RUNNING", RequestPoller.STATUS_DONE);
+        StatusApi.script("2", "RUNNING", RequestPoller.STATUS_DONE);
+
+        CompletableFuture<RequestState> first = poller.submit("1", 60000, 20, 40);
+        CompletableFuture<RequestState> second = poller.submit("2", 60000, 20, 40);
+
+        assertEquals(RequestPoller.STATUS_DONE, await(first).getStatus());
+        assertEquals(RequestPoller.STATUS_DONE, await(second).getStatus());
+        assertEquals(4, StatusApi.statusCalls.get());
+    }
+
+    /*
+     * An api class like the sdk's requests api. Every request goes through its script of statuses, one
+     * per poll, and stays at the last one.
+     */
+    public static class StatusApi {
+        static final Map<String, List<String>> SCRIPTS = new ConcurrentHashMap<>();
+        static final Map<String, AtomicInteger> POLLS = new ConcurrentHashMap<>();
+        static final AtomicInteger statusCalls = new AtomicInteger();
+        static final AtomicInteger listCalls = new AtomicInteger();
+        static volatile boolean failList;
+
+        static void reset() {
+            SCRIPTS.clear();
+            POLLS.clear();
+            statusCalls.set(0);
+            listCalls.set(0);
+            failList = false;
+        }
+
+        static void script(String requestId, String... statuses) {
+            SCRIPTS.put(requestId, Arrays.asList(statuses));
+            POLLS.put(requestId, new AtomicInteger());
+        }
+
+        public StatusApi(ApiClient apiClient) {
+        }
+
+        private static Map<String, Object> metadata(String requestId) throws ApiException {
+            List<String> script = SCRIPTS.get(requestId);
+            String status = script.get(Math.min(POLLS.get(requestId).getAndIncrement(), script.size() - 1));
+            if (ERROR.equals(status)) {
+                throw new ApiException("status unavailable", 500, new HashMap<>(), "{}");
+            }
+
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("status", status);
+            metadata.put("message", "request " + requestId + " is " + status);
+            return metadata;
+        }
+
+        public ApiResponse<Map<String, Object>> requestsStatusGetWithHttpInfo(String requestId) throws ApiException {
+            statusCalls.incrementAndGet();
+            return new ApiResponse<>(200, new HashMap<>(), Collections.<String, Object>singletonMap("metadata", metadata(requestId)));
+        }
+
+        public ApiResponse<Map<String, Object>> requestsGetWithHttpInfo(Integer depth, Integer limit) throws ApiException {
+            listCalls.incrementAndGet();
+            if (failList) {
+                throw new ApiException("list unavailable", 500, new HashMap<>(), "{}");
+            }
+
+            List<Object> items = new ArrayList<>();
+            for (String requestId : new TreeSet<>(SCRIPTS.keySet())) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("id", requestId);
+                item.put("metadata", Collections.singletonMap("requestStatus",
+                        Collections.singletonMap("metadata", metadata(requestId))));
+                items.add(item);
+            }
+            return new ApiResponse<>(200, new HashMap<>(), Collections.<String, Object>singletonMap("items", items));
+        }
+    }
+}
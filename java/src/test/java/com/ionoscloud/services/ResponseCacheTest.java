@@ -0,0 +1,208 @@
+package com.ionoscloud.services;
+
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.CacheStats;
+import com.ionoscloud.models.Operation;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ResponseCacheTest {
+
+    private static final long LONG_TTL_MILLIS = 60000;
+
+    private static final Operation LIST_DATACENTERS = operation("datacentersGet", "GET", "/datacenters");
+    private static final Operation GET_DATACENTER = operation("datacentersFindById", "GET", "/datacenters/{datacenterId}", "datacenterId");
+    private static final Operation LIST_SERVERS = operation("datacentersServersGet", "GET", "/datacenters/{datacenterId}/servers", "datacenterId");
+    private static final Operation GET_SERVER = operation("datacentersServersFindById", "GET",
+            "/datacenters/{datacenterId}/servers/{serverId}", "datacenterId", "serverId");
+    private static final Operation PUT_SERVER = operation("datacentersServersPut", "PUT",
+            "/datacenters/{datacenterId}/servers/{serverId}", "datacenterId", "serverId");
+
+    private final OperationInvoker invoker = invoker();
+    /* an invoker stands for the api method of an operation, so every operation has its own */
+    private final Map<String, OperationInvoker> invokers = new HashMap<>();
+
+    private static Operation operation(String name, String httpMethod, String path, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .httpMethod(httpMethod)
+                .path(path)
+                .parameterNames(Arrays.asList(parameterNames))
+                .build();
+    }
+
+    private static OperationInvoker invoker() {
+        try {
+            return new OperationInvoker(Object.class.getMethod("toString"), new Object());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ApiResponse<String> response(String data, String etag) {
+        Map<String, List<String>> headers = new HashMap<>();
+        if (etag != null) {
+            headers.put(ResponseCache.ETAG_HEADER, Collections.singletonList(etag));
+        }
+        return new ApiResponse<>(200, headers, data);
+    }
+
+    private ResponseCache.Key put(ResponseCache cache, Operation operation, Object... prm) {
+        ResponseCache.Key key = new ResponseCache.Key(invokers.computeIfAbsent(operation.getName(), name -> invoker()),
+                Arrays.toString(prm));
+        cache.put(key, operation, prm, response(operation.getName(), null), cache.generation());
+        return key;
+    }
+
+    @Test
+    public void servesFreshEntries() {
+        ResponseCache cache = new ResponseCache(10, LONG_TTL_MILLIS);
+        ApiResponse<String> response = response("datacenter", null);
+        ResponseCache.Key key = new ResponseCache.Key(invoker, "[\"1\"]");
+        cache.put(key, GET_DATACENTER, new Object[]{"1"}, response, cache.generation());
+
+        ResponseCache.Entry entry = cache.get(new ResponseCache.Key(invoker, "[\"1\"]"));
+        assertNotNull(entry);
+        assertTrue(entry.isFresh());
+        assertSame(response, entry.getResponse());
+
+        /* other params or another client are other calls */
+        assertNull(cache.get(new ResponseCache.Key(invoker, "[\"2\"]")));
+        assertNull(cache.get(new ResponseCache.Key(invoker(), "[\"1\"]")));
+    }
+
+    @Test
+    public void dropsStaleEntriesWithoutAnEtag() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(10, 20);
+        ResponseCache.Key key = put(cache, GET_DATACENTER, "1");
+        assertNotNull(cache.get(key));
+
+        Thread.sleep(40);
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getStats(false).getEntries().intValue());
+    }
+
+    @Test
+    public void keepsStaleEntriesWithAnEtagForRevalidation() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(10, 20);
+        ResponseCache.Key key = new ResponseCache.Key(invoker, "[\"1\"]");
+        /* okhttp hands out the header names in lower case */
+        ApiResponse<String> response = new ApiResponse<>(200,
+                Collections.singletonMap("etag", Collections.singletonList("\"v1\"")), "datacenter");
+        cache.put(key, GET_DATACENTER, new Object[]{"1"}, response, cache.generation());
+
+        Thread.sleep(40);
+        ResponseCache.Entry entry = cache.get(key);
+        assertNotNull(entry);
+        assertFalse(entry.isFresh());
+        assertEquals("\"v1\"", entry.getEtag());
+
+        /* a 304 makes it fresh for another ttl */
+        cache.refresh(entry);
+        assertTrue(entry.isFresh());
+        assertSame(response, cache.get(key).getResponse());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntry() {
+        ResponseCache cache = new ResponseCache(2, LONG_TTL_MILLIS);
+        ResponseCache.Key first = put(cache, GET_DATACENTER, "1");
+        ResponseCache.Key second = put(cache, GET_DATACENTER, "2");
+        cache.get(first);
+        ResponseCache.Key third = put(cache, GET_DATACENTER, "3");
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+    }
+
+    @Test
+    public void invalidatesTheBranchOfAMutatedResource() {
+        ResponseCache cache = new ResponseCache(10, LONG_TTL_MILLIS);
+        ResponseCache.Key datacenters = put(cache, LIST_DATACENTERS);
+        ResponseCache.Key datacenter = put(cache, GET_DATACENTER, "1");
+        ResponseCache.Key otherDatacenter = put(cache, GET_DATACENTER, "2");
+        ResponseCache.Key servers = put(cache, LIST_SERVERS, "1");
+        ResponseCache.Key server = put(cache, GET_SERVER, "1", "2");
+        ResponseCache.Key otherServer = put(cache, GET_SERVER, "1", "3");
+
+        cache.invalidate(PUT_SERVER, new Object[]{"1", "2"});
+
+        assertNull(cache.get(datacenters));
+        assertNull(cache.get(datacenter));
+        assertNull(cache.get(servers));
+        assertNull(cache.get(server));
+        assertNotNull(cache.get(otherDatacenter));
+        assertNotNull(cache.get(otherServer));
+        assertEquals(4, cache.getStats(false).getInvalidations().longValue());
+    }
+
+    @Test
+    public void dropsTheResponseOfAGetThatRacedAMutation() {
+        ResponseCache cache = new ResponseCache(10, LONG_TTL_MILLIS);
+        ResponseCache.Key server = new ResponseCache.Key(invoker, "[\"1\",\"2\"]");
+
+        /* the GET starts, a PUT of the same server finishes, then the GET's now stale response arrives */
+        long generation = cache.generation();
+        cache.invalidate(PUT_SERVER, new Object[]{"1", "2"});
+        cache.put(server, GET_SERVER, new Object[]{"1", "2"}, response("stale server", null), generation);
+        assertNull(cache.get(server));
+
+        /* a GET started after the mutation is stored */
+        cache.put(server, GET_SERVER, new Object[]{"1", "2"}, response("server", null), cache.generation());
+        assertEquals("server", cache.get(server).getResponse().getData());
+    }
+
+    @Test
+    public void invalidatesEverythingForAnUnknownPath() {
+        ResponseCache cache = new ResponseCache(10, LONG_TTL_MILLIS);
+        ResponseCache.Key datacenter = put(cache, GET_DATACENTER, "1");
+        ResponseCache.Key server = put(cache, GET_SERVER, "1", "2");
+
+        cache.invalidate(operation("datacentersServersStartPost", "POST", null, "datacenterId", "serverId"), new Object[]{"9", "9"});
+
+        assertNull(cache.get(datacenter));
+        assertNull(cache.get(server));
+    }
+
+    @Test
+    public void matchesUnknownPathParamsToAnySegment() {
+        assertEquals(Arrays.asList("datacenters", "*", "servers", "2"),
+                ResponseCache.resourcePath(GET_SERVER, new Object[]{null, "2"}));
+        assertTrue(ResponseCache.onSameBranch(Arrays.asList("datacenters", "*"), Arrays.asList("datacenters", "1", "servers")));
+        assertFalse(ResponseCache.onSameBranch(Arrays.asList("datacenters", "1"), Arrays.asList("datacenters", "2")));
+        assertTrue(ResponseCache.onSameBranch(Collections.<String>emptyList(), Arrays.asList("datacenters", "2")));
+    }
+
+    @Test
+    public void cachesOnlyGetsOtherThanRequestStatuses() {
+        assertTrue(ResponseCache.isCacheable(GET_SERVER));
+        assertFalse(ResponseCache.isCacheable(PUT_SERVER));
+        assertFalse(ResponseCache.isCacheable(operation("requestsStatusGet", "GET", "/requests/{requestId}/status", "requestId")));
+        assertFalse(ResponseCache.isCacheable(operation("statusGet", "GET", "/requests/{requestId}/status", "requestId")));
+    }
+
+    @Test
+    public void countsAndResetsStats() {
+        ResponseCache cache = new ResponseCache(10, LONG_TTL_MILLIS);
+        put(cache, GET_DATACENTER, "1");
+        cache.count(ResponseCache.HIT);
+        cache.count(ResponseCache.HIT);
+        cache.count(ResponseCache.REVALIDATED);
+        cache.count(ResponseCache.MISS);
+
+        CacheStats stats = cache.getStats(true);
+        assertEquals(2, stats.getHits().longValue());
+        assertEquals(1, stats.getRevalidations().longValue());
+        assertEquals(1, stats.getMisses().longValue());
+        assertEquals(1, stats.getEntries().intValue());
+
+        stats = cache.getStats(false);
+        assertEquals(0, stats.getHits().longValue());
+        assertEquals(1, stats.getEntries().intValue());
+    }
+}
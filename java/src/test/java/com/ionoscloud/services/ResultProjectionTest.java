@@ -0,0 +1,241 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ResultProjectionTest {
+
+    private static Map<String, Object> map(Object... entries) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((String) entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    private static Map<String, Object> server(String id, String name, Object cores, Object running) {
+        return map("id", id, "type", "server", "properties", map("name", name, "cores", cores, "running", running));
+    }
+
+    private static Map<String, Object> servers() {
+        return map(
+                "id", "servers",
+                "items", Arrays.asList(
+                        server("1", "web", 2, true),
+                        server("2", "db", 4, false),
+                        server("3", "cache", 2.0, null)
+                )
+        );
+    }
+
+    private static String project(List<String> select, String filter, Object data) {
+        return new ResultProjection(select, filter).toJson(data);
+    }
+
+    @Test
+    public void selectsNestedPaths() {
+        assertEquals(
+                "{\"items\":[{\"id\":\"1\",\"properties\":{\"name\":\"web\"}},{\"id\":\"2\",\"properties\":{\"name\":\"db\"}},"
+                        + "{\"id\":\"3\",\"properties\":{\"name\":\"cache\"}}]}",
+                project(Arrays.asList("items.id", "items.properties.name"), null, servers())
+        );
+    }
+
+    @Test
+    public void selectsWholeObjects() {
+        assertEquals(
+                "{\"items\":[{\"properties\":{\"name\":\"web\",\"cores\":2,\"running\":true}}]}",
+                project(Collections.singletonList("items.properties"), null, map("items", Collections.singletonList(server("1", "web", 2, true))))
+        );
+    }
+
+    @Test
+    public void leavesOutPathsThatDoNotExist() {
+        assertEquals("{}", project(Collections.singletonList("missing.name"), null, servers()));
+        /* the objects leading to a missing field are still written */
+        assertEquals(
+                "{\"items\":[{\"properties\":{}},{\"properties\":{}},{\"properties\":{}}]}",
+                project(Collections.singletonList("items.properties.missing"), null, servers())
+        );
+        assertEquals(
+                "{\"id\":\"servers\"}",
+                project(Arrays.asList("id", "id.missing"), null, servers())
+        );
+    }
+
+    @Test
+    public void selectsEverythingWithoutPaths() {
+        assertEquals(JsonUtils.GSON.toJson(servers()), project(null, null, servers()));
+        assertEquals(JsonUtils.GSON.toJson(servers()), project(Collections.emptyList(), " ", servers()));
+    }
+
+    @Test
+    public void filtersOnNumbers() {
+        /* 2 and 2.0 are the same number */
+        assertEquals("{\"items\":[{\"id\":\"1\"},{\"id\":\"3\"}]}",
+                project(Collections.singletonList("items.id"), "properties.cores == 2", servers()));
+        assertEquals("{\"items\":[{\"id\":\"2\"}]}",
+                project(Collections.singletonList("items.id"), "properties.cores != 2.0", servers()));
+    }
+
+    @Test
+    public void filtersOnBooleans() {
+        assertEquals("{\"items\":[{\"id\":\"1\"}]}",
+                project(Collections.singletonList("items.id"), "properties.running == true", servers()));
+        assertEquals("{\"items\":[{\"id\":\"2\"},{\"id\":\"3\"}]}",
+                project(Collections.singletonList("items.id"), "properties.running != true", servers()));
+    }
+
+    @Test
+    public void filtersOnNull() {
+        /* an item without the field matches null as well */
+        Map<String, Object> data = map("items", Arrays.asList(
+                server("1", "web", 2, true),
+                server("2", "db", 4, null),
+                map("id", "3")
+        ));
+        assertEquals("{\"items\":[{\"id\":\"2\"},{\"id\":\"3\"}]}",
+                project(Collections.singletonList("items.id"), "properties.running == null", data));
+        assertEquals("{\"items\":[{\"id\":\"1\"}]}",
+                project(Collections.singletonList("items.id"), "properties.running != null", data));
+    }
+
+    @Test
+    public void filtersOnStrings() {
+        assertEquals("{\"items\":[{\"id\":\"3\"}]}",
+                project(Collections.singletonList("items.id"), "properties.name ^= 'ca'", servers()));
+        assertEquals("{\"items\":[{\"id\":\"1\"},{\"id\":\"2\"}]}",
+                project(Collections.singletonList("items.id"), "properties.name *= \"b\"", servers()));
+    }
+
+    @Test
+    public void filtersWithoutSelectingTheField() {
+        assertEquals("{\"id\":\"servers\",\"items\":[{\"id\":\"2\",\"type\":\"server\"}]}",
+                project(Arrays.asList("id", "items.id", "items.type"), "properties.name == 'db'", servers()));
+    }
+
+    @Test
+    public void filtersATopLevelArray() {
+        List<Object> data = Arrays.asList(server("1", "web", 2, true), server("2", "db", 4, false));
+        ResultProjection projection = new ResultProjection(null, "properties.cores == 4");
+        assertEquals(JsonUtils.GSON.toJson(Collections.singletonList(server("2", "db", 4, false))), projection.toJson(data));
+        assertEquals(2, projection.getItems());
+    }
+
+    @Test
+    public void countsItemsBeforeFiltering() {
+        ResultProjection projection = new ResultProjection(Collections.singletonList("items.id"), "properties.cores == 4");
+        projection.toJson(servers());
+        assertEquals(3, projection.getItems());
+    }
+
+    @Test
+    public void rejectsMalformedFilters() {
+        assertInvalid(Collections.<String>emptyList(), "properties.name",
+                "invalid filter 'properties.name', expected <path> <==|!=|^=|*=> <value>");
+        assertInvalid(Collections.<String>emptyList(), "properties.name = 'web'",
+                "invalid filter 'properties.name = 'web'', expected <path> <==|!=|^=|*=> <value>");
+        assertInvalid(Collections.<String>emptyList(), "== 'web'",
+                "invalid filter '== 'web'', expected <path> <==|!=|^=|*=> <value>");
+        assertInvalid(Collections.<String>emptyList(), "properties..name == 'web'",
+                "invalid filter 'properties..name == 'web'', expected <path> <==|!=|^=|*=> <value>");
+        assertInvalid(Collections.<String>emptyList(), "properties.name == web",
+                "invalid filter 'properties.name == web', string values have to be quoted");
+        assertInvalid(Collections.<String>emptyList(), "properties.name == 'web",
+                "invalid filter 'properties.name == 'web', string values have to be quoted");
+    }
+
+    @Test
+    public void rejectsMalformedSelectPaths() {
+        assertInvalid(Collections.singletonList(" "), null, "'select' paths must not be blank");
+        assertInvalid(Collections.singletonList("items..id"), null, "invalid select path 'items..id'");
+    }
+
+    @Test
+    public void projectsOnlyInputsThatSelectOrFilter() {
+        assertNull(ResultProjection.of(new Input()));
+        assertNotNull(ResultProjection.of(Input.builder().filter("id == '1'").build()));
+        assertNotNull(ResultProjection.of(Input.builder().select(Collections.singletonList("id")).build()));
+    }
+
+    @Test
+    public void projectsAPaginatedList() throws Throwable {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(server(String.valueOf(i), "server-" + i, i % 2 == 0 ? 2 : 4, true));
+        }
+        ListApi api = new ListApi(items);
+        Method method = ListApi.class.getMethod("listWithHttpInfo", Integer.class, Integer.class);
+        Operation operation = Operation
+                .builder()
+                .name("list")
+                .method(method.getName())
+                .parameterNames(Arrays.asList(Paginator.OFFSET_PARAM, Paginator.LIMIT_PARAM))
+                .httpMethod("GET")
+                .build();
+        Input input = Input
+                .builder()
+                .operation("list")
+                .paginate(true)
+                .pageSize(2)
+                .select(Collections.singletonList("items.id"))
+                .filter("properties.cores == 2")
+                .build();
+
+        SdkService sdkService = new SdkService(new ApiClient(), OperationIndex.of(Collections.singletonList(operation)));
+        Response summary = new Paginator(sdkService).run(input, operation, new OperationInvoker(method, api),
+                ParameterBinder.of(method, operation.getParameterNames()), new HashMap<>(), null);
+
+        assertNull(summary.getError());
+        /* the pages count the items the api returned, not the ones left after the filter */
+        assertEquals(Integer.valueOf(5), summary.getPage().getItems());
+        assertEquals(Integer.valueOf(3), summary.getPage().getPages());
+
+        List<String> ids = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        for (Response page : summary.getResponses()) {
+            offsets.add(page.getPage().getOffset());
+            JsonNode result = JsonUtils.MAPPER.readTree(page.getResult().toString());
+            for (JsonNode item : result.path("items")) {
+                assertEquals(1, item.size());
+                ids.add(item.path("id").asText());
+            }
+        }
+        assertEquals(Arrays.asList(0, 2, 4), offsets);
+        assertEquals(Arrays.asList("0", "2", "4"), ids);
+    }
+
+    private static void assertInvalid(List<String> select, String filter, String message) {
+        try {
+            new ResultProjection(select, filter);
+            fail("expected " + message);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    /* a list operation over fixed items, taking offset and limit like the sdk's list operations */
+    public static class ListApi {
+        private final List<Map<String, Object>> items;
+
+        public ListApi(List<Map<String, Object>> items) {
+            this.items = items;
+        }
+
+        public ApiResponse<Map<String, Object>> listWithHttpInfo(Integer offset, Integer limit) {
+            List<Map<String, Object>> page = items.subList(Math.min(offset, items.size()), Math.min(offset + limit, items.size()));
+            return new ApiResponse<>(200, new HashMap<>(), map("id", "servers", "items", page));
+        }
+    }
+}
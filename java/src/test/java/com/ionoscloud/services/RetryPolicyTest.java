@@ -0,0 +1,113 @@
+package com.ionoscloud.services;
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RetryPolicyTest {
+
+    private static Map<String, List<String>> retryAfter(String value) {
+        return Collections.singletonMap(RetryPolicy.RETRY_AFTER_HEADER, Collections.singletonList(value));
+    }
+
+    private static String httpDate(long secondsFromNow) {
+        return ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(secondsFromNow).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    @Test
+    public void retriesTooManyRequestsOfAnyOperation() {
+        RetryPolicy policy = new RetryPolicy(3);
+        assertTrue(policy.shouldRetry(RetryPolicy.TOO_MANY_REQUESTS, false, 1));
+        assertTrue(policy.shouldRetry(RetryPolicy.TOO_MANY_REQUESTS, true, 2));
+    }
+
+    @Test
+    public void retriesServerErrorsOfIdempotentOperationsOnly() {
+        RetryPolicy policy = new RetryPolicy(3);
+        assertTrue(policy.shouldRetry(503, true, 1));
+        assertTrue(policy.shouldRetry(0, true, 1));
+        assertFalse(policy.shouldRetry(503, false, 1));
+        assertFalse(policy.shouldRetry(0, false, 1));
+        assertFalse(policy.shouldRetry(404, true, 1));
+        assertFalse(policy.shouldRetry(400, true, 1));
+    }
+
+    @Test
+    public void stopsAtMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy(3);
+        assertFalse(policy.shouldRetry(RetryPolicy.TOO_MANY_REQUESTS, true, 3));
+        assertFalse(RetryPolicy.NONE.shouldRetry(RetryPolicy.TOO_MANY_REQUESTS, true, 1));
+        /* there is always at least one attempt */
+        assertFalse(new RetryPolicy(0).shouldRetry(503, true, 1));
+    }
+
+    @Test
+    public void knowsIdempotentMethods() {
+        assertTrue(RetryPolicy.isIdempotent("GET"));
+        assertTrue(RetryPolicy.isIdempotent("put"));
+        assertTrue(RetryPolicy.isIdempotent("DELETE"));
+        assertFalse(RetryPolicy.isIdempotent("POST"));
+        assertFalse(RetryPolicy.isIdempotent("PATCH"));
+        assertFalse(RetryPolicy.isIdempotent(null));
+    }
+
+    @Test
+    public void backsOffExponentiallyWithJitter() {
+        RetryPolicy policy = new RetryPolicy(10);
+        for (int i = 0; i < 100; i++) {
+            assertBetween(0, TimeUnit.MILLISECONDS.toNanos(500), policy.backoff(1, null));
+            assertBetween(0, TimeUnit.MILLISECONDS.toNanos(1000), policy.backoff(2, new HashMap<>()));
+            assertBetween(0, TimeUnit.MILLISECONDS.toNanos(4000), policy.backoff(4, null));
+            assertBetween(0, TimeUnit.MILLISECONDS.toNanos(RetryPolicy.MAX_BACKOFF_MILLIS), policy.backoff(40, null));
+        }
+    }
+
+    @Test
+    public void waitsForRetryAfterSeconds() {
+        assertEquals(TimeUnit.SECONDS.toNanos(3), new RetryPolicy(2).backoff(1, retryAfter("3")));
+        assertEquals(Long.valueOf(TimeUnit.SECONDS.toNanos(3)), RetryPolicy.retryAfter(retryAfter(" 3 ")));
+        /* okhttp hands out the header names in lower case */
+        assertEquals(Long.valueOf(0), RetryPolicy.retryAfter(
+                Collections.singletonMap("retry-after", Collections.singletonList("0"))));
+    }
+
+    @Test
+    public void waitsForRetryAfterDate() {
+        Long wait = RetryPolicy.retryAfter(retryAfter(httpDate(10)));
+        assertNotNull(wait);
+        assertBetween(TimeUnit.SECONDS.toNanos(8), TimeUnit.SECONDS.toNanos(10), wait);
+
+        /* a date in the past means no wait */
+        assertEquals(Long.valueOf(0), RetryPolicy.retryAfter(retryAfter(httpDate(-60))));
+    }
+
+    @Test
+    public void capsRetryAfter() {
+        long max = TimeUnit.MILLISECONDS.toNanos(RetryPolicy.MAX_BACKOFF_MILLIS);
+        assertEquals(max, new RetryPolicy(2).backoff(1, retryAfter("3600")));
+        assertEquals(max, new RetryPolicy(2).backoff(1, retryAfter(httpDate(3600))));
+    }
+
+    @Test
+    public void ignoresInvalidRetryAfter() {
+        assertNull(RetryPolicy.retryAfter(null));
+        assertNull(RetryPolicy.retryAfter(new HashMap<>()));
+        assertNull(RetryPolicy.retryAfter(retryAfter("soon")));
+        assertNull(RetryPolicy.retryAfter(Collections.singletonMap(RetryPolicy.RETRY_AFTER_HEADER, Collections.<String>emptyList())));
+        /* the backoff falls back to the jitter */
+        assertBetween(0, TimeUnit.MILLISECONDS.toNanos(500), new RetryPolicy(2).backoff(1, retryAfter("soon")));
+    }
+
+    private static void assertBetween(long min, long max, long value) {
+        assertTrue(value + " is not in [" + min + ", " + max + "]", value >= min && value <= max);
+    }
+}
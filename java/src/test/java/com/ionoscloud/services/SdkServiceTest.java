@@ -0,0 +1,107 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.annotations.SerializedName;
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Input;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.models.RawJson;
+import com.ionoscloud.models.Response;
+import com.ionoscloud.utils.JsonUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class SdkServiceTest {
+
+    private final SdkService sdkService = new SdkService(new ApiClient(), OperationIndex.of(Collections.singletonList(
+            Operation
+                    .builder()
+                    .name("serversFindById")
+                    .apiClass(TestApi.class.getName())
+                    .method("serversFindByIdWithHttpInfo")
+                    .parameterNames(Collections.singletonList("serverId"))
+                    .httpMethod("GET")
+                    .build()
+    )));
+
+    private Response run(String serverId) throws Throwable {
+        return sdkService.run(JsonUtils.MAPPER.readValue(
+                "{\"operation\": \"serversFindById\", \"params\": [{\"name\": \"serverId\", \"value\": \"" + serverId + "\"}]}",
+                Input.class
+        ));
+    }
+
+    @Test
+    public void serializesTheResultWithTheSdksAdapters() throws Throwable {
+        Response response = run("1");
+
+        /* gson names the enum by its api value and leaves out null fields, as the sdk would send it */
+        assertTrue(response.getResult() instanceof RawJson);
+        assertEquals("{\"id\":\"1\",\"properties\":{\"name\":\"web\",\"vmState\":\"in-progress\",\"cores\":2,\"ram\":1024.50}}",
+                response.getResult().toString());
+    }
+
+    @Test
+    public void usesTheResultAsTheHttpBody() throws Throwable {
+        Response response = run("1");
+
+        assertEquals(response.getResult().toString(), response.getHttpResponse().getBody());
+        assertEquals(Integer.valueOf(200), response.getHttpResponse().getStatusCode());
+    }
+
+    @Test
+    public void writesTheResultIntoTheResponseAsIs() throws Throwable {
+        Response response = run("1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out);
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        assertTrue(json, json.contains("\"result\":" + response.getResult()));
+        JsonNode written = JsonUtils.MAPPER.readTree(json);
+        assertEquals("in-progress", written.path("result").path("properties").path("vmState").asText());
+        /* the decimal keeps its scale instead of going through a double */
+        assertTrue(json, json.contains("\"ram\":1024.50}"));
+        /* writing the response is the same as serializing it with the shared mapper */
+        assertEquals(json, JsonUtils.MAPPER.writeValueAsString(response));
+    }
+
+    public enum VmState {
+        @SerializedName("in-progress")
+        IN_PROGRESS
+    }
+
+    public static class ServerProperties {
+        String name = "web";
+        VmState vmState = VmState.IN_PROGRESS;
+        Integer cores = 2;
+        BigDecimal ram = new BigDecimal("1024.50");
+        String availabilityZone;
+    }
+
+    public static class Server {
+        String id;
+        ServerProperties properties = new ServerProperties();
+
+        Server(String id) {
+            this.id = id;
+        }
+    }
+
+    /* returns sdk-like models, with gson annotations instead of the sdk's adapters */
+    public static class TestApi {
+        public TestApi(ApiClient apiClient) {
+        }
+
+        public ApiResponse<Server> serversFindByIdWithHttpInfo(String serverId) {
+            return new ApiResponse<>(200, new HashMap<>(), new Server(serverId));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.ionoscloud.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ionoscloud.ApiClient;
+import com.ionoscloud.ApiResponse;
+import com.ionoscloud.models.Operation;
+import com.ionoscloud.utils.JsonUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class StubApiServerTest {
+
+    private StubApiServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static Operation operation(String name, String httpMethod, String path, String... parameterNames) {
+        return Operation
+                .builder()
+                .name(name)
+                .apiClass(TestApi.class.getName())
+                .method(name + "WithHttpInfo")
+                .parameterNames(Arrays.asList(parameterNames))
+                .httpMethod(httpMethod)
+                .path(path)
+                .build();
+    }
+
+    private String start(long latencyMillis, double tooManyRequestsRate, double serverErrorRate) throws IOException {
+        server = new StubApiServer(OperationIndex.of(Arrays.asList(
+                operation("thingsGet", "GET", "/things", "depth"),
+                operation("thingsFindById", "GET", "/things/{thingId}", "thingId"),
+                operation("thingsPartsGet", "GET", "/things/parts"),
+                operation("thingsPut", "PUT", "/things/{thingId}", "thingId"),
+                operation("thingsDelete", "DELETE", "/things/{thingId}", "thingId")
+        )), 0, latencyMillis, 3, tooManyRequestsRate, serverErrorRate);
+        server.start();
+        return "http://localhost:" + server.getPort();
+    }
+
+    @Test
+    public void servesAList() throws IOException {
+        Exchange exchange = call("GET", start(0, 0, 0) + "/things", null);
+
+        assertEquals(200, exchange.status);
+        assertEquals("application/json", exchange.header("Content-Type"));
+        assertNotNull(exchange.header(ResponseCache.ETAG_HEADER));
+        JsonNode body = exchange.json();
+        assertEquals(3, body.path("items").size());
+        assertEquals("AVAILABLE", body.path("items").path(0).path("properties").path("state").asText());
+        /* the model is parsed like an sdk response */
+        Things things = JsonUtils.GSON.fromJson(exchange.body, Things.class);
+        assertEquals(3, things.items.size());
+    }
+
+    @Test
+    public void servesTheSamePayloadOnEveryRun() throws IOException {
+        String first = call("GET", start(0, 0, 0) + "/things/1", null).body;
+        server.stop();
+        String second = call("GET", start(0, 0, 0) + "/things/2", null).body;
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void routesUnderABasePath() throws IOException {
+        String url = start(0, 0, 0);
+        assertEquals(200, call("GET", url + "/cloudapi/v6/things", null).status);
+        assertEquals(200, call("GET", url + "/cloudapi/v6/things/", null).status);
+        assertEquals(200, call("GET", url + "/cloudapi/v6/things/abc", null).status);
+    }
+
+    @Test
+    public void prefersLiteralSegmentsOverPathParams() throws IOException {
+        String url = start(0, 0, 0);
+        JsonNode parts = call("GET", url + "/things/parts", null).json();
+        JsonNode thing = call("GET", url + "/things/abc", null).json();
+        assertTrue(parts.has("items"));
+        assertFalse(thing.has("items"));
+    }
+
+    @Test
+    public void answersUnknownPathsWithNotFound() throws IOException {
+        String url = start(0, 0, 0);
+        Exchange exchange = call("GET", url + "/nothing", null);
+        assertEquals(404, exchange.status);
+        assertEquals(404, exchange.json().path("httpStatus").asInt());
+        assertEquals("no operation for GET /nothing", exchange.json().path("messages").path(0).path("message").asText());
+
+        /* a known path with a method it does not serve */
+        assertEquals(404, call("POST", url + "/things/abc", null).status);
+    }
+
+    @Test
+    public void answersIfNoneMatchWithNotModified() throws IOException {
+        String url = start(0, 0, 0);
+        String etag = call("GET", url + "/things", null).header(ResponseCache.ETAG_HEADER);
+
+        Exchange exchange = call("GET", url + "/things", etag);
+        assertEquals(ResponseCache.NOT_MODIFIED, exchange.status);
+        assertEquals(etag, exchange.header(ResponseCache.ETAG_HEADER));
+        assertEquals(200, call("GET", url + "/things", "\"other\"").status);
+    }
+
+    @Test
+    public void acceptsMutationsWithARequestLocation() throws IOException {
+        String url = start(0, 0, 0);
+        Exchange exchange = call("PUT", url + "/cloudapi/v6/things/abc", null);
+
+        assertEquals(202, exchange.status);
+        String location = exchange.header("Location");
+        assertTrue(location, location.matches("http://localhost:\\d+/cloudapi/v6/requests/[0-9a-f-]{36}/status"));
+
+        exchange = call("DELETE", url + "/things/abc", null);
+        assertEquals(202, exchange.status);
+        assertTrue(exchange.header("Location"), exchange.header("Location").matches("http://localhost:\\d+/requests/[0-9a-f-]{36}/status"));
+    }
+
+    @Test
+    public void injectsServerErrors() throws IOException {
+        Exchange exchange = call("GET", start(0, 0, 1) + "/things", null);
+        assertEquals(503, exchange.status);
+        assertEquals(503, exchange.json().path("httpStatus").asInt());
+    }
+
+    @Test
+    public void injectsTooManyRequestsWithRetryAfter() throws IOException {
+        Exchange exchange = call("GET", start(0, 1, 0) + "/things", null);
+        assertEquals(RetryPolicy.TOO_MANY_REQUESTS, exchange.status);
+        String retryAfter = exchange.header(RetryPolicy.RETRY_AFTER_HEADER);
+        assertNotNull(RetryPolicy.retryAfter(Collections.singletonMap(RetryPolicy.RETRY_AFTER_HEADER, Collections.singletonList(retryAfter))));
+    }
+
+    @Test
+    public void waitsForTheLatency() throws IOException {
+        String url = start(100, 0, 0);
+        long start = System.nanoTime();
+        assertEquals(200, call("GET", url + "/things", null).status);
+        assertTrue((System.nanoTime() - start) / 1000000 >= 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsErrorRatesAboveOne() throws IOException {
+        start(0, 0.6, 0.6);
+    }
+
+    private static Exchange call(String method, String url, String ifNoneMatch) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty(ResponseCache.IF_NONE_MATCH_HEADER, ifNoneMatch);
+        }
+
+        Exchange exchange = new Exchange();
+        exchange.status = connection.getResponseCode();
+        exchange.headers = connection.getHeaderFields();
+        exchange.body = read(exchange.status < 400 ? connection.getInputStream() : connection.getErrorStream());
+        return exchange;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class Exchange {
+        int status;
+        Map<String, List<String>> headers;
+        String body;
+
+        String header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        JsonNode json() throws IOException {
+            return JsonUtils.MAPPER.readTree(body);
+        }
+    }
+
+    public enum State { BUSY, AVAILABLE }
+
+    public static class Properties {
+        String name;
+        Integer cores;
+        State state;
+    }
+
+    public static class Thing {
+        String id;
+        Properties properties;
+    }
+
+    public static class Things {
+        String id;
+        List<Thing> items;
+    }
+
+    /* an api class like the sdk's; the stub only looks at the return types of its methods */
+    public static class TestApi {
+        public TestApi(ApiClient apiClient) {
+        }
+
+        public ApiResponse<Things> thingsGetWithHttpInfo(Integer depth) {
+            return null;
+        }
+
+        public ApiResponse<Thing> thingsFindByIdWithHttpInfo(String thingId) {
+            return null;
+        }
+
+        public ApiResponse<Things> thingsPartsGetWithHttpInfo() {
+            return null;
+        }
+
+        public ApiResponse<Thing> thingsPutWithHttpInfo(String thingId) {
+            return null;
+        }
+
+        public ApiResponse<Void> thingsDeleteWithHttpInfo(String thingId) {
+            return null;
+        }
+    }
+}
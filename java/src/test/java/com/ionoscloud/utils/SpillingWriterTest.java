@@ -0,0 +1,141 @@
+package com.ionoscloud.utils;
+
+import com.ionoscloud.models.RawJson;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SpillingWriterTest {
+
+    private Set<File> existing;
+
+    /* the temp files of spilled values in java.io.tmpdir */
+    static Set<File> spilledFiles() {
+        File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("ionos-driver-") && name.endsWith(".json"));
+        return files == null ? new HashSet<>() : new HashSet<>(Arrays.asList(files));
+    }
+
+    private Set<File> newSpilledFiles() {
+        Set<File> files = spilledFiles();
+        files.removeAll(existing);
+        return files;
+    }
+
+    /* a json string of exactly the given length */
+    static String json(int length) {
+        StringBuilder json = new StringBuilder("[\"");
+        for (int i = 0; json.length() < length - 2; i++) {
+            json.append(i % 10);
+        }
+        return json.append("\"]").toString();
+    }
+
+    @Before
+    public void setUp() {
+        existing = spilledFiles();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : newSpilledFiles()) {
+            SpillingWriter.delete(file);
+        }
+    }
+
+    @Test
+    public void keepsValuesUpToTheThresholdInMemory() throws IOException {
+        SpillingWriter writer = new SpillingWriter(100);
+        String json = json(100);
+        writer.write(json.substring(0, 60));
+        writer.write(json.toCharArray(), 60, 40);
+        RawJson value = writer.toRawJson();
+
+        assertEquals(100, json.length());
+        assertFalse(value.isSpilled());
+        assertEquals(json, value.toString());
+        assertTrue(newSpilledFiles().isEmpty());
+    }
+
+    @Test
+    public void spillsValuesAboveTheThreshold() throws IOException {
+        SpillingWriter writer = new SpillingWriter(100);
+        String json = json(10000);
+        for (int offset = 0; offset < json.length(); offset += 7) {
+            writer.write(json, offset, Math.min(7, json.length() - offset));
+        }
+        RawJson value = writer.toRawJson();
+
+        assertTrue(value.isSpilled());
+        Set<File> files = newSpilledFiles();
+        assertEquals(1, files.size());
+        File file = files.iterator().next();
+        assertEquals(json.length(), file.length());
+        /* nothing is lost at the threshold or in the last chunk */
+        assertEquals(json, value.toString());
+        assertEquals(json, new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+
+        value.release();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void spillsMultiByteCharsIntact() throws IOException {
+        SpillingWriter writer = new SpillingWriter(4);
+        String json = "[\"gr\u00fc\u00dfe\", \"\u20ac\", \"\ud83d\ude00\"]";
+        writer.write(json);
+        RawJson value = writer.toRawJson();
+
+        assertTrue(value.isSpilled());
+        assertEquals(json, value.toString());
+        value.release();
+    }
+
+    @Test
+    public void neverSpillsWithoutAThreshold() throws IOException {
+        SpillingWriter writer = new SpillingWriter(0);
+        String json = json(100000);
+        writer.write(json);
+
+        assertFalse(writer.toRawJson().isSpilled());
+        assertTrue(newSpilledFiles().isEmpty());
+    }
+
+    @Test
+    public void releasesAValueReadOnce() throws IOException {
+        SpillingWriter writer = new SpillingWriter(10);
+        String json = json(1000);
+        writer.write(json);
+        RawJson value = writer.toRawJson();
+        File file = newSpilledFiles().iterator().next();
+
+        StringBuilder read = new StringBuilder();
+        try (Reader reader = value.openReaderAndRelease()) {
+            char[] chunk = new char[64];
+            for (int length = reader.read(chunk); length > 0; length = reader.read(chunk)) {
+                read.append(chunk, 0, length);
+            }
+            assertTrue(file.exists());
+        }
+
+        assertEquals(json, read.toString());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void releasingAnInMemoryValueKeepsIt() throws IOException {
+        SpillingWriter writer = new SpillingWriter(100);
+        writer.write("{}");
+        RawJson value = writer.toRawJson();
+        value.release();
+        assertEquals("{}", value.toString());
+    }
+}
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+#
+# Measures the time to first response of a cold driver run: the wall time of a single listOperations
+# call, which needs no api access. The jar is run without and with the class data sharing archive
+# built by ./gradlew cdsArchive; pass the jar of an older build to compare it with the current one.
+#
+
+function usage() {
+	echo "error: $1"
+	echo
+	echo "usage: startup-benchmark.sh <driver jar> [runs] [baseline jar]"
+	echo "example: startup-benchmark.sh build/libs/java.jar 20"
+	exit 1
+}
+
+jar="${1}"
+runs="${2:-10}"
+baseline="${3}"
+archive="$(dirname "${jar}")/driver.jsa"
+input='{"operation": "listOperations"}'
+
+if [ "${jar}" = "" ] || [ ! -f "${jar}" ]; then
+	usage "driver jar not found"
+fi
+
+# the call makes no api requests, but the driver refuses to start without credentials
+export IONOS_TOKEN="${IONOS_TOKEN:-startup-benchmark}"
+
+# prints the mean wall time in ms of <runs> cold runs of the given java command
+function measure() {
+	local total=0
+	for ((i = 0; i < runs; i++)); do
+		local start end
+		start=$(date +%s%N)
+		echo "${input}" | "$@" > /dev/null 2>&1 || { echo "failed: $*"; return 1; }
+		end=$(date +%s%N)
+		total=$((total + (end - start) / 1000))
+	done
+	echo "$((total / runs / 1000)) ms"
+}
+
+if [ "${baseline}" != "" ]; then
+	echo "baseline:      $(measure java -jar "${baseline}")"
+fi
+echo "current:       $(measure java -jar "${jar}")"
+if [ -f "${archive}" ]; then
+	echo "current + cds: $(measure java -XX:SharedArchiveFile="${archive}" -jar "${jar}")"
+else
+	echo "no class data sharing archive at ${archive}, run ./gradlew cdsArchive first"
+fi